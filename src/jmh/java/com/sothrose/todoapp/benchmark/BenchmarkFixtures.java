@@ -0,0 +1,70 @@
+package com.sothrose.todoapp.benchmark;
+
+import com.sothrose.todoapp.model.TodoItem;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.User;
+import com.sothrose.todoapp.model.UserTodoItemView;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkFixtures {
+  private static final LocalDate BIRTHDAY = LocalDate.of(1990, 1, 1);
+  private static final LocalDateTime COMPLETION_TIME = LocalDateTime.of(2099, 1, 1, 12, 0);
+
+  private BenchmarkFixtures() {}
+
+  static User user(long userId, int itemsPerUser) {
+    var user = new User("user" + userId, "John", "Doe", "john.doe@example.com", BIRTHDAY);
+    for (int i = 0; i < itemsPerUser; i++) {
+      user.getTodoItems().add(todoItem(userId, i));
+    }
+    return user;
+  }
+
+  static List<User> users(int userCount, int itemsPerUser) {
+    var users = new ArrayList<User>(userCount);
+    for (long userId = 1; userId <= userCount; userId++) {
+      users.add(user(userId, itemsPerUser));
+    }
+    return users;
+  }
+
+  static TodoItem todoItem(long userId, int index) {
+    return new TodoItem(userId, "todo" + index, "info" + index, COMPLETION_TIME, index % 2 == 0);
+  }
+
+  static TodoItemDto todoItemDto(long userId, int index) {
+    return new TodoItemDto(userId, "todo" + index, "info" + index, COMPLETION_TIME, index % 2 == 0);
+  }
+
+  // Shaped like findViewWithTodoItemsById: one row per item, or a single row without an item.
+  static List<UserTodoItemView> userRows(long userId, int itemsPerUser) {
+    if (itemsPerUser == 0) {
+      return List.of(userRow(userId, null, 0));
+    }
+
+    var rows = new ArrayList<UserTodoItemView>(itemsPerUser);
+    for (int i = 0; i < itemsPerUser; i++) {
+      rows.add(userRow(userId, userId * itemsPerUser + i, i));
+    }
+    return rows;
+  }
+
+  private static UserTodoItemView userRow(long userId, Long todoItemId, int index) {
+    var withItem = todoItemId != null;
+    return new UserTodoItemView(
+        userId,
+        "user" + userId,
+        "John",
+        "Doe",
+        "john.doe@example.com",
+        BIRTHDAY,
+        todoItemId,
+        withItem ? "todo" + index : null,
+        withItem ? "info" + index : null,
+        withItem ? COMPLETION_TIME : null,
+        withItem ? index % 2 == 0 : null);
+  }
+}
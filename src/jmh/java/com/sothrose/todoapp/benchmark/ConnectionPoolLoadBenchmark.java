@@ -0,0 +1,96 @@
+package com.sothrose.todoapp.benchmark;
+
+import com.sothrose.todoapp.TodoappApplication;
+import com.sothrose.todoapp.model.User;
+import com.sothrose.todoapp.repository.UserRepository;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Many more clients than pooled connections, one request in four a write. Time spent waiting for a
+// connection shows up in the SampleTime percentiles.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(200)
+public class ConnectionPoolLoadBenchmark {
+  private static final int SEEDED_USERS = 5;
+  private static final String TODO_ITEM_BODY =
+      """
+      {"userId": %d, "todo": "load", "info": "load test",
+       "completionTime": "2030-01-01T12:00:00", "done": false}
+      """;
+
+  @Param({"default", "production"})
+  private String profile;
+
+  private PostgreSQLContainer<?> postgresContainer;
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private URI baseUri;
+  private List<Long> userIds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    postgresContainer = new PostgreSQLContainer<>("postgres:15.3");
+    postgresContainer.start();
+    context =
+        new SpringApplicationBuilder(TodoappApplication.class)
+            .profiles(profile)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=" + postgresContainer.getJdbcUrl(),
+                "spring.datasource.username=" + postgresContainer.getUsername(),
+                "spring.datasource.password=" + postgresContainer.getPassword(),
+                "todoapp.cache.enabled=false",
+                "logging.level.com.sothrose.todoapp=warn")
+            .run();
+    var userRepository = context.getBean(UserRepository.class);
+    var users = userRepository.saveAll(BenchmarkFixtures.users(SEEDED_USERS, 0));
+    userIds = users.stream().map(User::getId).toList();
+    var port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    baseUri = URI.create("http://localhost:" + port + "/v1/todoapp/users/");
+    client = HttpClient.newHttpClient();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    client.close();
+    context.close();
+    postgresContainer.stop();
+  }
+
+  @State(Scope.Thread)
+  public static class RequestIndex {
+    private int next;
+  }
+
+  @Benchmark
+  public int request(RequestIndex index) throws IOException, InterruptedException {
+    return client.send(request(index.next++), BodyHandlers.discarding()).statusCode();
+  }
+
+  private HttpRequest request(int index) {
+    var userId = userIds.get(index % userIds.size());
+    return switch (index % 4) {
+      case 0 -> HttpRequest.newBuilder(baseUri.resolve(String.valueOf(userId))).GET().build();
+      case 1 -> HttpRequest.newBuilder(baseUri.resolve("todoItems/done/" + userId)).GET().build();
+      case 2 ->
+          HttpRequest.newBuilder(baseUri.resolve("todoItems/notDone/" + userId)).GET().build();
+      default ->
+          HttpRequest.newBuilder(baseUri.resolve("todoItems"))
+              .header("Content-Type", "application/json")
+              .POST(BodyPublishers.ofString(TODO_ITEM_BODY.formatted(userId)))
+              .build();
+    };
+  }
+}
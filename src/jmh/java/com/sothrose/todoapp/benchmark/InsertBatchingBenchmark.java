@@ -0,0 +1,78 @@
+package com.sothrose.todoapp.benchmark;
+
+import com.sothrose.todoapp.TodoappApplication;
+import com.sothrose.todoapp.model.TodoItem;
+import com.sothrose.todoapp.model.User;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Scores are inserted rows per second.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InsertBatchingBenchmark {
+  private static final int USERS_PER_ROUND = 1_000;
+  private static final int ITEMS_PER_USER = 5;
+
+  @Param({"1", "50"})
+  private int jdbcBatchSize;
+
+  private PostgreSQLContainer<?> postgresContainer;
+  private ConfigurableApplicationContext context;
+  private EntityManager entityManager;
+  private TransactionTemplate transactionTemplate;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    postgresContainer = new PostgreSQLContainer<>("postgres:15.3");
+    postgresContainer.start();
+    context =
+        new SpringApplicationBuilder(TodoappApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=" + postgresContainer.getJdbcUrl(),
+                "spring.datasource.username=" + postgresContainer.getUsername(),
+                "spring.datasource.password=" + postgresContainer.getPassword(),
+                "logging.level.com.sothrose.todoapp=warn")
+            .run();
+    entityManager = context.getBean(EntityManager.class);
+    transactionTemplate = context.getBean(TransactionTemplate.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+    postgresContainer.stop();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(USERS_PER_ROUND * (1 + ITEMS_PER_USER))
+  public void insertRound() {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+          for (int i = 0; i < USERS_PER_ROUND; i++) {
+            var user =
+                new User(
+                    "bench" + i, "Bench", "User", "bench@example.com", LocalDate.of(1990, 1, 1));
+            entityManager.persist(user);
+            for (int j = 0; j < ITEMS_PER_USER; j++) {
+              entityManager.persist(
+                  new TodoItem(
+                      user.getId(), "todo" + j, "info", LocalDateTime.now().plusDays(1), false));
+            }
+          }
+          entityManager.flush();
+          entityManager.clear();
+        });
+  }
+}
@@ -0,0 +1,57 @@
+package com.sothrose.todoapp.benchmark;
+
+import com.sothrose.todoapp.model.TodoItem;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserTodoItemView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int userCount;
+
+  @Param({"0", "10", "50"})
+  private int itemsPerUser;
+
+  private List<List<UserTodoItemView>> userRows;
+  private List<TodoItemDto> todoItemDtos;
+
+  @Setup
+  public void setUp() {
+    userRows = new ArrayList<>(userCount);
+    for (long userId = 1; userId <= userCount; userId++) {
+      userRows.add(BenchmarkFixtures.userRows(userId, itemsPerUser));
+    }
+    todoItemDtos = new ArrayList<>(userCount * itemsPerUser);
+    for (long userId = 1; userId <= userCount; userId++) {
+      for (int i = 0; i < itemsPerUser; i++) {
+        todoItemDtos.add(BenchmarkFixtures.todoItemDto(userId, i));
+      }
+    }
+  }
+
+  @Benchmark
+  public List<UserDto> userRowsToUserDto() {
+    var userDtos = new ArrayList<UserDto>(userRows.size());
+    for (var rows : userRows) {
+      userDtos.add(UserTodoItemView.toUserDto(rows));
+    }
+    return userDtos;
+  }
+
+  @Benchmark
+  public List<TodoItem> todoItemDtoToTodoItem() {
+    var todoItems = new ArrayList<TodoItem>(todoItemDtos.size());
+    for (var todoItemDto : todoItemDtos) {
+      todoItems.add(todoItemDto.toTodoItem());
+    }
+    return todoItems;
+  }
+}
@@ -0,0 +1,44 @@
+package com.sothrose.todoapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserTodoItemView;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int userCount;
+
+  @Param({"0", "10", "50"})
+  private int itemsPerUser;
+
+  private ObjectWriter userListWriter;
+  private List<UserDto> userDtos;
+
+  @Setup
+  public void setUp() {
+    // Same defaults as the mapper Spring MVC writes responses with.
+    var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    var listType = objectMapper.getTypeFactory().constructCollectionType(List.class, UserDto.class);
+    userListWriter = objectMapper.writerFor(listType);
+    userDtos =
+        LongStream.rangeClosed(1, userCount)
+            .mapToObj(userId -> BenchmarkFixtures.userRows(userId, itemsPerUser))
+            .map(UserTodoItemView::toUserDto)
+            .toList();
+  }
+
+  @Benchmark
+  public byte[] serializeUserDtos() throws JsonProcessingException {
+    return userListWriter.writeValueAsBytes(userDtos);
+  }
+}
@@ -0,0 +1,103 @@
+package com.sothrose.todoapp.benchmark;
+
+import static java.lang.String.format;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sothrose.todoapp.controller.GlobalExceptionHandler;
+import com.sothrose.todoapp.controller.UserController;
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import com.sothrose.todoapp.service.UserService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserNotFoundBenchmark {
+  private static final long MISSING_USER_ID = 42L;
+
+  @Param({"20", "150"})
+  private int stackDepth;
+
+  private MockMvc legacyMockMvc;
+  private MockMvc problemMockMvc;
+  private MockHttpServletRequestBuilder request;
+
+  @Setup
+  public void setUp() {
+    legacyMockMvc = mockMvc(LegacyUserNotFoundException::new, false);
+    problemMockMvc = mockMvc(UserNotFoundException::new, true);
+    request = get("/v1/todoapp/users/{userId}", MISSING_USER_ID);
+  }
+
+  @Benchmark
+  public RuntimeException legacyException() {
+    return throwAt(stackDepth, LegacyUserNotFoundException::new);
+  }
+
+  @Benchmark
+  public RuntimeException stacklessException() {
+    return throwAt(stackDepth, UserNotFoundException::new);
+  }
+
+  @Benchmark
+  public Object legacyNotFoundRequest() throws Exception {
+    try {
+      return legacyMockMvc.perform(request).andReturn();
+    } catch (Exception e) {
+      // Without a handler the exception escapes the dispatcher and the servlet container renders
+      // the 500; this measures only the part that happens before that.
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object problemNotFoundRequest() throws Exception {
+    return problemMockMvc.perform(request).andReturn();
+  }
+
+  private MockMvc mockMvc(LongFunction<RuntimeException> exception, boolean withAdvice) {
+    var userService = mock(UserService.class);
+    when(userService.getUser(anyLong()))
+        .thenAnswer(
+            invocation -> {
+              throw exception.apply(invocation.<Long>getArgument(0));
+            });
+    var builder =
+        MockMvcBuilders.standaloneSetup(new UserController(userService, new ObjectMapper()));
+    if (withAdvice) {
+      builder.setControllerAdvice(new GlobalExceptionHandler());
+    }
+    return builder.build();
+  }
+
+  private static RuntimeException throwAt(int depth, LongFunction<RuntimeException> exception) {
+    try {
+      recurse(depth, exception);
+      throw new IllegalStateException("unreachable");
+    } catch (RuntimeException e) {
+      return e;
+    }
+  }
+
+  private static void recurse(int depth, LongFunction<RuntimeException> exception) {
+    if (depth == 0) {
+      throw exception.apply(MISSING_USER_ID);
+    }
+    recurse(depth - 1, exception);
+  }
+
+  private static final class LegacyUserNotFoundException extends RuntimeException {
+    private LegacyUserNotFoundException(long userId) {
+      super(format("User with id: [%s] not found", userId));
+    }
+  }
+}
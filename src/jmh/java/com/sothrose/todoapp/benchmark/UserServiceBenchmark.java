@@ -0,0 +1,95 @@
+package com.sothrose.todoapp.benchmark;
+
+import com.sothrose.todoapp.TodoappApplication;
+import com.sothrose.todoapp.model.CursorPage;
+import com.sothrose.todoapp.model.TodoItem;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.repository.TodoItemRepository;
+import com.sothrose.todoapp.repository.UserRepository;
+import com.sothrose.todoapp.service.UserService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserServiceBenchmark {
+  private static final int PAGE_SIZE = 100;
+
+  @Param({"10", "100", "1000"})
+  private int userCount;
+
+  @Param({"0", "10", "50"})
+  private int itemsPerUser;
+
+  private ConfigurableApplicationContext context;
+  private UserService userService;
+  private Long firstUserId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(TodoappApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.flyway.enabled=false",
+                "todoapp.cache.enabled=false",
+                "logging.level.com.sothrose.todoapp=warn")
+            .run();
+    userService = context.getBean(UserService.class);
+    seed(context.getBean(UserRepository.class), context.getBean(TodoItemRepository.class));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public UserDto getUser() {
+    return userService.getUser(firstUserId);
+  }
+
+  @Benchmark
+  public CursorPage<UserDto> getUsersPage() {
+    return userService.getUsers(0L, PAGE_SIZE);
+  }
+
+  @Benchmark
+  public List<TodoItemDto> getNotDoneTodoItems() {
+    return userService.getAllNotDoneTodoItemsForUser(firstUserId, PageRequest.of(0, PAGE_SIZE));
+  }
+
+  @Benchmark
+  public void streamAllUsers(Blackhole blackhole) {
+    userService.streamAllUsers(blackhole::consume);
+  }
+
+  private void seed(UserRepository userRepository, TodoItemRepository todoItemRepository) {
+    var users = userRepository.saveAll(BenchmarkFixtures.users(userCount, 0));
+    firstUserId = users.get(0).getId();
+
+    var todoItems = new ArrayList<TodoItem>();
+    for (var user : users) {
+      for (int i = 0; i < itemsPerUser; i++) {
+        todoItems.add(BenchmarkFixtures.todoItem(user.getId(), i));
+      }
+    }
+    todoItemRepository.saveAll(todoItems);
+  }
+}
@@ -0,0 +1,12 @@
+package com.sothrose.todoapp.config;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties("todoapp.archive")
+public record ArchiveProperties(
+    @DefaultValue("90d") Duration age, @DefaultValue("1000") @Min(1) int batchSize) {}
@@ -0,0 +1,10 @@
+package com.sothrose.todoapp.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties("todoapp.bulk-import")
+public record BulkImportProperties(@DefaultValue("1000") @Min(1) int batchSize) {}
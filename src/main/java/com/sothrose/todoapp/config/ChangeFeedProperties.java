@@ -0,0 +1,16 @@
+package com.sothrose.todoapp.config;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties("todoapp.changes")
+public record ChangeFeedProperties(
+    @DefaultValue("30s") Duration pollTimeout,
+    @DefaultValue("30m") Duration streamTimeout,
+    @DefaultValue("500") @Min(1) int maxChanges,
+    @DefaultValue("7d") Duration retention,
+    @DefaultValue("5s") Duration listenerReconnectDelay) {}
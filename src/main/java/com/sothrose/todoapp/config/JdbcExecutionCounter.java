@@ -0,0 +1,63 @@
+package com.sothrose.todoapp.config;
+
+import java.sql.ResultSet;
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+public class JdbcExecutionCounter implements QueryExecutionListener, MethodExecutionListener {
+  private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+  // Binds the counts to the calling thread; an async request binds the same counts again on the
+  // thread that finishes it.
+  public void start(Counts counts) {
+    CURRENT.set(counts);
+  }
+
+  public Counts stop() {
+    var counts = CURRENT.get();
+    CURRENT.remove();
+    return counts == null ? new Counts() : counts;
+  }
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    var counts = CURRENT.get();
+    if (counts != null) {
+      counts.statements++;
+    }
+  }
+
+  @Override
+  public void beforeMethod(MethodExecutionContext executionContext) {}
+
+  @Override
+  public void afterMethod(MethodExecutionContext executionContext) {
+    var counts = CURRENT.get();
+    if (counts != null
+        && executionContext.getTarget() instanceof ResultSet
+        && "next".equals(executionContext.getMethod().getName())
+        && Boolean.TRUE.equals(executionContext.getResult())) {
+      counts.rows++;
+    }
+  }
+
+  public static final class Counts {
+    private long statements;
+    private long rows;
+
+    public long statements() {
+      return statements;
+    }
+
+    public long rows() {
+      return rows;
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.sothrose.todoapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JdbcMetricsConfig {
+
+  @Bean
+  public static JdbcExecutionCounter jdbcExecutionCounter() {
+    return new JdbcExecutionCounter();
+  }
+
+  // Only the pool is wrapped; the proxy unwraps to HikariDataSource, so the Hikari pool gauges
+  // Boot registers keep working.
+  @Bean
+  public static BeanPostProcessor countingDataSourcePostProcessor(
+      JdbcExecutionCounter jdbcExecutionCounter) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource dataSource)) {
+          return bean;
+        }
+        return ProxyDataSourceBuilder.create(dataSource)
+            .name(beanName)
+            .listener(jdbcExecutionCounter)
+            .methodListener(jdbcExecutionCounter)
+            .proxyResultSet()
+            .build();
+      }
+    };
+  }
+}
@@ -0,0 +1,111 @@
+package com.sothrose.todoapp.config;
+
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+import static org.springframework.web.servlet.HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE;
+
+import com.sothrose.todoapp.config.JdbcExecutionCounter.Counts;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+// The counts of an async request travel to its async dispatch in a request attribute, and a
+// StreamingResponseBody adds the statements it runs on the executor thread. A DeferredResult is
+// completed by whichever thread published the change, so the change feed is not recorded.
+@RequiredArgsConstructor
+@Component
+public class JdbcRequestMetricsFilter extends OncePerRequestFilter {
+  private static final String COUNTS_ATTRIBUTE =
+      JdbcRequestMetricsFilter.class.getName() + ".counts";
+
+  private final JdbcExecutionCounter jdbcExecutionCounter;
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    var counts = (Counts) request.getAttribute(COUNTS_ATTRIBUTE);
+    if (counts == null && isAsyncDispatch(request)) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    if (counts == null) {
+      counts = new Counts();
+      request.setAttribute(COUNTS_ATTRIBUTE, counts);
+      var asyncManager = WebAsyncUtils.getAsyncManager(request);
+      asyncManager.registerCallableInterceptor(COUNTS_ATTRIBUTE, new CallableCounting());
+      asyncManager.registerDeferredResultInterceptor(
+          COUNTS_ATTRIBUTE, new DeferredResultSkipping());
+    }
+    jdbcExecutionCounter.start(counts);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      jdbcExecutionCounter.stop();
+      if (!request.isAsyncStarted() && request.getAttribute(COUNTS_ATTRIBUTE) != null) {
+        record(request, counts);
+      }
+    }
+  }
+
+  private void record(HttpServletRequest request, Counts counts) {
+    var uri = request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE);
+    var tags =
+        Tags.of("method", request.getMethod(), "uri", uri == null ? "UNKNOWN" : uri.toString());
+    DistributionSummary.builder("todoapp.request.jdbc.statements")
+        .description("JDBC statements executed per request")
+        .tags(tags)
+        .register(meterRegistry)
+        .record(counts.statements());
+    DistributionSummary.builder("todoapp.request.jdbc.rows")
+        .description("JDBC result set rows fetched per request")
+        .tags(tags)
+        .register(meterRegistry)
+        .record(counts.rows());
+  }
+
+  private class CallableCounting implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+      var counts = (Counts) request.getAttribute(COUNTS_ATTRIBUTE, SCOPE_REQUEST);
+      if (counts != null) {
+        jdbcExecutionCounter.start(counts);
+      }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object result) {
+      jdbcExecutionCounter.stop();
+    }
+  }
+
+  private static class DeferredResultSkipping implements DeferredResultProcessingInterceptor {
+
+    @Override
+    public <T> void beforeConcurrentHandling(
+        NativeWebRequest request, DeferredResult<T> deferredResult) {
+      request.removeAttribute(COUNTS_ATTRIBUTE, SCOPE_REQUEST);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.sothrose.todoapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+@Slf4j
+@Profile("production")
+@Configuration
+public class ProductionPoolConfig {
+
+  // Sizes each pool as cores * connections-per-core + effective-spindles, the usual starting
+  // point for PostgreSQL, unless that pool's maximum-pool-size is set explicitly. Runs before
+  // initialization, so it still sees the raw Hikari pool rather than the counting proxy.
+  @Bean
+  public static BeanPostProcessor poolSizingPostProcessor(
+      Environment environment,
+      @Value("${todoapp.datasource.pool.connections-per-core:2}") int connectionsPerCore,
+      @Value("${todoapp.datasource.pool.effective-spindles:1}") int effectiveSpindles) {
+    var poolSize =
+        Runtime.getRuntime().availableProcessors() * connectionsPerCore + effectiveSpindles;
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource dataSource)
+            || environment.containsProperty(poolPrefix(beanName) + ".maximum-pool-size")) {
+          return bean;
+        }
+        dataSource.setMaximumPoolSize(poolSize);
+        log.info("Sizing connection pool [{}] to [{}] connections", beanName, poolSize);
+        return bean;
+      }
+    };
+  }
+
+  private static String poolPrefix(String beanName) {
+    return "replicaDataSource".equals(beanName)
+        ? "todoapp.datasource.replica"
+        : "spring.datasource.hikari";
+  }
+}
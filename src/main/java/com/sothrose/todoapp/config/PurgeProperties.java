@@ -0,0 +1,14 @@
+package com.sothrose.todoapp.config;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties("todoapp.purge")
+public record PurgeProperties(
+    @DefaultValue("1000") @Min(1) int batchSize,
+    @DefaultValue("50ms") Duration batchDelay,
+    @DefaultValue("100") @Min(1) int maxUsersPerRun) {}
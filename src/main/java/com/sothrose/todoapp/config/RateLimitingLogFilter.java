@@ -0,0 +1,42 @@
+package com.sothrose.todoapp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class RateLimitingLogFilter extends Filter<ILoggingEvent> {
+  private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+  private int maxEventsPerSecond = 100;
+
+  public void setMaxEventsPerSecond(int maxEventsPerSecond) {
+    this.maxEventsPerSecond = maxEventsPerSecond;
+  }
+
+  @Override
+  public FilterReply decide(ILoggingEvent event) {
+    if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+      return FilterReply.NEUTRAL;
+    }
+
+    var window = windows.computeIfAbsent(event.getLoggerName(), loggerName -> new Window());
+    return window.tryAcquire(event.getTimeStamp() / 1000, maxEventsPerSecond)
+        ? FilterReply.NEUTRAL
+        : FilterReply.DENY;
+  }
+
+  private static final class Window {
+    private long second;
+    private int events;
+
+    synchronized boolean tryAcquire(long currentSecond, int maxEvents) {
+      if (currentSecond != second) {
+        second = currentSecond;
+        events = 0;
+      }
+      return ++events <= maxEvents;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.sothrose.todoapp.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Profile("reactive")
+@Configuration
+public class ReactiveConfig {
+
+  // Tomcat stays on the classpath for the servlet variant and would otherwise win the
+  // auto-configured reactive server; the R2DBC driver already runs on Netty's event loops.
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+    return new NettyReactiveWebServerFactory();
+  }
+
+  // Not registered as a ReactiveTransactionManager bean, which would make @Transactional on the
+  // JPA services ambiguous; reactive writes opt in through this operator instead.
+  @Bean
+  public TransactionalOperator r2dbcTransactionalOperator(ConnectionFactory connectionFactory) {
+    return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+  }
+}
@@ -0,0 +1,29 @@
+package com.sothrose.todoapp.config;
+
+import com.sothrose.todoapp.service.CaffeineUserCache;
+import com.sothrose.todoapp.service.NoOpUserCache;
+import com.sothrose.todoapp.service.UserCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserCacheConfig {
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "todoapp.cache.enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public UserCache caffeineUserCache(
+      UserCacheProperties userCacheProperties, MeterRegistry meterRegistry) {
+    return new CaffeineUserCache(userCacheProperties, meterRegistry);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "todoapp.cache.enabled", havingValue = "false")
+  public UserCache noOpUserCache() {
+    return new NoOpUserCache();
+  }
+}
@@ -0,0 +1,15 @@
+package com.sothrose.todoapp.config;
+
+import jakarta.validation.constraints.Min;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties("todoapp.cache")
+public record UserCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10000") @Min(1) long maximumSize,
+    @DefaultValue("100000") @Min(1) long maximumTodoItems,
+    @DefaultValue("60s") Duration expireAfterWrite) {}
@@ -0,0 +1,37 @@
+package com.sothrose.todoapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@RequiredArgsConstructor
+@Component
+public class UserServiceMetricsAspect {
+  private static final String SUCCESS = "success";
+
+  private final MeterRegistry meterRegistry;
+
+  @Around("execution(public * com.sothrose.todoapp.service.UserService.*(..))")
+  public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+    var sample = Timer.start(meterRegistry);
+    var outcome = SUCCESS;
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      outcome = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      sample.stop(
+          Timer.builder("todoapp.user-service")
+              .description("UserService method execution time")
+              .tag("method", joinPoint.getSignature().getName())
+              .tag("outcome", outcome)
+              .register(meterRegistry));
+    }
+  }
+}
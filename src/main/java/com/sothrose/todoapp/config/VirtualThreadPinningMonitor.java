@@ -0,0 +1,79 @@
+package com.sothrose.todoapp.config;
+
+import static java.util.stream.Collectors.joining;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Profile("virtual-threads")
+@Component
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int LOGGED_FRAMES = 8;
+
+  private final Duration pinningThreshold;
+  private final Timer pinnedTimer;
+  private volatile RecordingStream recordingStream;
+
+  public VirtualThreadPinningMonitor(
+      VirtualThreadProperties virtualThreadProperties, MeterRegistry meterRegistry) {
+    pinningThreshold = virtualThreadProperties.pinningThreshold();
+    pinnedTimer =
+        Timer.builder("todoapp.virtual-threads.pinned")
+            .description("Time virtual threads spent pinned to their carrier thread")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public void start() {
+    recordingStream = new RecordingStream();
+    recordingStream.enable(PINNED_EVENT).withThreshold(pinningThreshold).withStackTrace();
+    recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+    recordingStream.startAsync();
+    log.info("Reporting virtual threads pinned for longer than [{}]", pinningThreshold);
+  }
+
+  @Override
+  public void stop() {
+    if (recordingStream != null) {
+      recordingStream.close();
+      recordingStream = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return recordingStream != null;
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinnedTimer.record(event.getDuration());
+    var stackTrace = event.getStackTrace();
+    var frames =
+        stackTrace == null
+            ? "<no stack trace>"
+            : stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(
+                    frame ->
+                        frame.getMethod().getType().getName()
+                            + "."
+                            + frame.getMethod().getName()
+                            + ":"
+                            + frame.getLineNumber())
+                .collect(joining("\n\tat ", "\n\tat ", ""));
+    log.warn(
+        "Virtual thread pinned for [{}] ms on thread: [{}]{}",
+        event.getDuration().toMillis(),
+        event.getThread() == null ? "unknown" : event.getThread().getJavaName(),
+        frames);
+  }
+}
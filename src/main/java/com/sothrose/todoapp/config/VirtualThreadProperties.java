@@ -0,0 +1,8 @@
+package com.sothrose.todoapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("todoapp.virtual-threads")
+public record VirtualThreadProperties(@DefaultValue("20ms") Duration pinningThreshold) {}
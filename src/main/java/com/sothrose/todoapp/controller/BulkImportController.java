@@ -0,0 +1,39 @@
+package com.sothrose.todoapp.controller;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+import com.sothrose.todoapp.model.BulkImportReport;
+import com.sothrose.todoapp.service.BulkImportService;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Profile("!reactive")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(path = "/v1/todoapp/users")
+public class BulkImportController {
+
+  private final BulkImportService bulkImportService;
+
+  @PostMapping(
+      path = "/bulk",
+      consumes = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE},
+      produces = APPLICATION_JSON_VALUE)
+  public BulkImportReport importUsers(InputStream body) throws IOException {
+    return bulkImportService.importUsers(body);
+  }
+
+  @PostMapping(
+      path = "/todoItems/bulk",
+      consumes = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE},
+      produces = APPLICATION_JSON_VALUE)
+  public BulkImportReport importTodoItems(InputStream body) throws IOException {
+    return bulkImportService.importTodoItems(body);
+  }
+}
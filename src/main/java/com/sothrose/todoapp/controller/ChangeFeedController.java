@@ -0,0 +1,116 @@
+package com.sothrose.todoapp.controller;
+
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
+
+import com.sothrose.todoapp.config.ChangeFeedProperties;
+import com.sothrose.todoapp.model.TodoItemChangeDto;
+import com.sothrose.todoapp.service.ChangeFeedService;
+import jakarta.validation.constraints.Min;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Profile("!reactive")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(path = "/v1/todoapp/users")
+public class ChangeFeedController {
+
+  private final ChangeFeedService changeFeedService;
+  private final ChangeFeedProperties changeFeedProperties;
+
+  @GetMapping(path = "/{userId}/changes", produces = "application/json")
+  public DeferredResult<List<TodoItemChangeDto>> pollChanges(
+      @PathVariable Long userId, @RequestParam(defaultValue = "0") @Min(0) long sinceVersion) {
+    var result =
+        new DeferredResult<List<TodoItemChangeDto>>(
+            changeFeedProperties.pollTimeout().toMillis(), List.of());
+    var unsubscribe =
+        changeFeedService.subscribe(userId, () -> completeIfChanged(result, userId, sinceVersion));
+    result.onCompletion(unsubscribe);
+    try {
+      var changes = changeFeedService.getChanges(userId, sinceVersion);
+      if (!changes.isEmpty()) {
+        result.setResult(changes);
+      }
+    } catch (RuntimeException e) {
+      unsubscribe.run();
+      throw e;
+    }
+    return result;
+  }
+
+  @GetMapping(path = "/{userId}/changes/stream", produces = TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChanges(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "0") @Min(0) long sinceVersion,
+      @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+    var emitter = new SseEmitter(changeFeedProperties.streamTimeout().toMillis());
+    var cursor = new AtomicLong(lastEventId == null ? sinceVersion : lastEventId);
+    var lock = new ReentrantLock();
+    var unsubscribe =
+        changeFeedService.subscribe(userId, () -> sendChanges(emitter, userId, cursor, lock));
+    emitter.onCompletion(unsubscribe);
+    emitter.onTimeout(unsubscribe);
+    emitter.onError(e -> unsubscribe.run());
+    lock.lock();
+    try {
+      send(emitter, changeFeedService.getChanges(userId, cursor.get()), cursor);
+    } catch (IOException e) {
+      emitter.completeWithError(e);
+    } catch (RuntimeException e) {
+      unsubscribe.run();
+      throw e;
+    } finally {
+      lock.unlock();
+    }
+    return emitter;
+  }
+
+  private void completeIfChanged(
+      DeferredResult<List<TodoItemChangeDto>> result, Long userId, long sinceVersion) {
+    if (result.isSetOrExpired()) {
+      return;
+    }
+    try {
+      var changes = changeFeedService.getChanges(userId, sinceVersion);
+      if (!changes.isEmpty()) {
+        result.setResult(changes);
+      }
+    } catch (RuntimeException e) {
+      result.setErrorResult(e);
+    }
+  }
+
+  // Notifications for one user can overlap; the lock keeps events in version order and stops the
+  // same change from being sent twice. A lock rather than synchronized, because the query below
+  // would otherwise pin the notifying virtual thread.
+  private void sendChanges(SseEmitter emitter, Long userId, AtomicLong cursor, ReentrantLock lock) {
+    lock.lock();
+    try {
+      send(emitter, changeFeedService.getChanges(userId, cursor.get()), cursor);
+    } catch (IOException | RuntimeException e) {
+      emitter.completeWithError(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void send(SseEmitter emitter, List<TodoItemChangeDto> changes, AtomicLong cursor)
+      throws IOException {
+    for (var change : changes) {
+      emitter.send(
+          SseEmitter.event()
+              .id(Long.toString(change.version()))
+              .name(change.type().name())
+              .data(change));
+      cursor.set(change.version());
+    }
+  }
+}
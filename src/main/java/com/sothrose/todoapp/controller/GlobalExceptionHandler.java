@@ -0,0 +1,27 @@
+package com.sothrose.todoapp.controller;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+@Profile("!reactive")
+@RestControllerAdvice
+public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
+
+  @ExceptionHandler(UserNotFoundException.class)
+  public ProblemDetail handleUserNotFound(UserNotFoundException e) {
+    return userNotFound(e);
+  }
+
+  static ProblemDetail userNotFound(UserNotFoundException e) {
+    var problemDetail = ProblemDetail.forStatusAndDetail(NOT_FOUND, e.getMessage());
+    problemDetail.setTitle("User not found");
+    problemDetail.setProperty("userId", e.getUserId());
+    return problemDetail;
+  }
+}
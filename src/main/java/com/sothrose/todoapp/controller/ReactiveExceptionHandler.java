@@ -0,0 +1,18 @@
+package com.sothrose.todoapp.controller;
+
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+
+@Profile("reactive")
+@RestControllerAdvice
+public class ReactiveExceptionHandler extends ResponseEntityExceptionHandler {
+
+  @ExceptionHandler(UserNotFoundException.class)
+  public ProblemDetail handleUserNotFound(UserNotFoundException e) {
+    return GlobalExceptionHandler.userNotFound(e);
+  }
+}
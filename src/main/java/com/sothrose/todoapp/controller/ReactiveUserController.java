@@ -0,0 +1,213 @@
+package com.sothrose.todoapp.controller;
+
+import static com.sothrose.todoapp.controller.UserController.NEXT_CURSOR_HEADER;
+import static com.sothrose.todoapp.controller.UserController.etag;
+import static org.springframework.http.HttpHeaders.LINK;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.TodoItemStatusReport;
+import com.sothrose.todoapp.model.TodoItemStatusUpdate;
+import com.sothrose.todoapp.model.UserBatch;
+import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserSummary;
+import com.sothrose.todoapp.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(path = "/v1/todoapp/users")
+public class ReactiveUserController {
+
+  private final ReactiveUserService userService;
+
+  @PostMapping(consumes = "application/json")
+  public Mono<Void> saveUser(@Valid @RequestBody UserDto userDto) {
+    return userService.saveUser(userDto);
+  }
+
+  @GetMapping(path = "/{userId}", produces = "application/json")
+  public Mono<UserDto> getUser(@PathVariable Long userId, ServerWebExchange exchange) {
+    return userService
+        .getUserVersion(userId)
+        .flatMap(
+            version ->
+                exchange.checkNotModified(etag(version))
+                    ? Mono.<UserDto>empty()
+                    : userService.getUser(userId));
+  }
+
+  @GetMapping(produces = "application/json")
+  public Mono<ResponseEntity<List<UserDto>>> getAll(
+      @RequestParam(defaultValue = "0") Long after,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit,
+      ServerHttpRequest request) {
+    return userService
+        .getUsers(after, limit)
+        .map(
+            page -> {
+              var response = ResponseEntity.ok();
+              if (page.hasNext()) {
+                var nextLink =
+                    UriComponentsBuilder.fromUri(request.getURI())
+                        .replaceQueryParam("after", page.nextCursor())
+                        .replaceQueryParam("limit", limit)
+                        .toUriString();
+                response
+                    .header(NEXT_CURSOR_HEADER, page.nextCursor().toString())
+                    .header(LINK, "<" + nextLink + ">; rel=\"next\"");
+              }
+              return response.body(page.items());
+            });
+  }
+
+  @GetMapping(path = "/batch", produces = "application/json")
+  public Mono<UserBatch> getBatch(@RequestParam @Size(min = 1, max = 200) List<Long> ids) {
+    return userService.getUsersByIds(ids);
+  }
+
+  @GetMapping(path = "/summaries", produces = "application/json")
+  public Flux<UserSummary> getSummaries(@RequestParam @Size(min = 1, max = 1000) List<Long> ids) {
+    return userService.getUserSummaries(ids);
+  }
+
+  @GetMapping(path = "/stream", produces = APPLICATION_NDJSON_VALUE)
+  public Flux<UserDto> streamAll() {
+    return userService.streamAllUsers();
+  }
+
+  @DeleteMapping(path = "/{userId}")
+  public Mono<Void> deleteUser(@PathVariable Long userId) {
+    return userService.deleteUser(userId);
+  }
+
+  @PostMapping(path = "/todoItems", consumes = "application/json")
+  public Mono<Void> addTodoItemToUser(@Valid @RequestBody TodoItemDto todoItemDto) {
+    return userService.addTodoItemToUser(todoItemDto);
+  }
+
+  @DeleteMapping(path = "/todoItems")
+  public Mono<Void> deleteTodoItemFromUser(
+      @RequestParam Long userId, @RequestParam Long todoItemId) {
+    return userService.deleteTodoItemFromUser(userId, todoItemId);
+  }
+
+  @PatchMapping(
+      path = "/{userId}/todoItems/status",
+      consumes = "application/json",
+      produces = "application/json")
+  public Mono<TodoItemStatusReport> updateTodoItemsStatus(
+      @PathVariable Long userId, @Valid @RequestBody TodoItemStatusUpdate statusUpdate) {
+    return userService
+        .setTodoItemsDone(userId, statusUpdate.ids(), statusUpdate.done())
+        .map(TodoItemStatusReport::new);
+  }
+
+  @PostMapping(path = "/{userId}/todoItems/overdue/complete", produces = "application/json")
+  public Mono<TodoItemStatusReport> completeOverdueTodoItems(@PathVariable Long userId) {
+    return userService.completeOverdueTodoItems(userId).map(TodoItemStatusReport::new);
+  }
+
+  @GetMapping(
+      path = "/todoItems/done/{userId}",
+      produces = {"application/json", APPLICATION_NDJSON_VALUE})
+  public Mono<ResponseEntity<Flux<TodoItemDto>>> getAllDone(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size,
+      ServerWebExchange exchange) {
+    return unlessNotModified(
+        userId,
+        exchange,
+        () -> userService.getAllDoneTodoItemsForUser(userId, PageRequest.of(page, size)));
+  }
+
+  @GetMapping(
+      path = "/todoItems/notDone/{userId}",
+      produces = {"application/json", APPLICATION_NDJSON_VALUE})
+  public Mono<ResponseEntity<Flux<TodoItemDto>>> getAllNotDone(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size,
+      ServerWebExchange exchange) {
+    return unlessNotModified(
+        userId,
+        exchange,
+        () -> userService.getAllNotDoneTodoItemsForUser(userId, PageRequest.of(page, size)));
+  }
+
+  @GetMapping(
+      path = "/{userId}/todoItems/archived",
+      produces = {"application/json", APPLICATION_NDJSON_VALUE})
+  public Mono<ResponseEntity<Flux<TodoItemDto>>> getArchived(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size,
+      ServerWebExchange exchange) {
+    return unlessNotModified(
+        userId,
+        exchange,
+        () -> userService.getArchivedTodoItemsForUser(userId, PageRequest.of(page, size)));
+  }
+
+  @GetMapping(
+      path = "/{userId}/todoItems/overdue",
+      produces = {"application/json", APPLICATION_NDJSON_VALUE})
+  public Flux<TodoItemDto> getOverdue(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size) {
+    return userService.getOverdueTodoItemsForUser(userId, PageRequest.of(page, size));
+  }
+
+  @GetMapping(path = "/todoItems/due", produces = APPLICATION_NDJSON_VALUE)
+  public Flux<TodoItemDto> streamDue(
+      @RequestParam(defaultValue = "60") @Min(1) @Max(10080) long withinMinutes) {
+    return userService.streamDueTodoItems(Duration.ofMinutes(withinMinutes));
+  }
+
+  @GetMapping(
+      path = "/{userId}/todoItems/search",
+      produces = {"application/json", APPLICATION_NDJSON_VALUE})
+  public Mono<ResponseEntity<Flux<TodoItemDto>>> searchTodoItems(
+      @PathVariable Long userId,
+      @RequestParam @NotBlank @Size(max = 200) String q,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+      ServerWebExchange exchange) {
+    return unlessNotModified(
+        userId, exchange, () -> userService.searchTodoItems(userId, q, PageRequest.of(page, size)));
+  }
+
+  // A 304 has to be an explicit empty entity here; returning an empty Flux would still render an
+  // empty JSON array as the body.
+  private Mono<ResponseEntity<Flux<TodoItemDto>>> unlessNotModified(
+      Long userId, ServerWebExchange exchange, Supplier<Flux<TodoItemDto>> todoItems) {
+    return userService
+        .getUserVersion(userId)
+        .map(
+            version ->
+                exchange.checkNotModified(etag(version))
+                    ? ResponseEntity.status(NOT_MODIFIED).<Flux<TodoItemDto>>build()
+                    : ResponseEntity.ok(todoItems.get()));
+  }
+}
@@ -1,19 +1,45 @@
 package com.sothrose.todoapp.controller;
 
+import static org.springframework.http.HttpHeaders.LINK;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.TodoItemStatusReport;
+import com.sothrose.todoapp.model.TodoItemStatusUpdate;
+import com.sothrose.todoapp.model.UserBatch;
 import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserSummary;
 import com.sothrose.todoapp.service.UserService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(path = "/v1/todoapp/users")
 public class UserController {
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
   private final UserService userService;
+  private final ObjectMapper objectMapper;
 
   @PostMapping(consumes = "application/json")
   public void saveUser(@Valid @RequestBody UserDto userDto) {
@@ -21,13 +47,45 @@ public class UserController {
   }
 
   @GetMapping(path = "/{userId}", produces = "application/json")
-  public UserDto getUser(@PathVariable Long userId) {
+  public UserDto getUser(@PathVariable Long userId, WebRequest webRequest) {
+    if (webRequest.checkNotModified(etag(userService.getUserVersion(userId)))) {
+      return null;
+    }
     return userService.getUser(userId);
   }
 
   @GetMapping(produces = "application/json")
-  public List<UserDto> getAll() {
-    return userService.getAllUsers();
+  public ResponseEntity<List<UserDto>> getAll(
+      @RequestParam(defaultValue = "0") Long after,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+    var page = userService.getUsers(after, limit);
+    var response = ResponseEntity.ok();
+    if (page.hasNext()) {
+      var nextLink =
+          ServletUriComponentsBuilder.fromCurrentRequest()
+              .replaceQueryParam("after", page.nextCursor())
+              .replaceQueryParam("limit", limit)
+              .toUriString();
+      response
+          .header(NEXT_CURSOR_HEADER, page.nextCursor().toString())
+          .header(LINK, "<" + nextLink + ">; rel=\"next\"");
+    }
+    return response.body(page.items());
+  }
+
+  @GetMapping(path = "/batch", produces = "application/json")
+  public UserBatch getBatch(@RequestParam @Size(min = 1, max = 200) List<Long> ids) {
+    return userService.getUsersByIds(ids);
+  }
+
+  @GetMapping(path = "/summaries", produces = "application/json")
+  public List<UserSummary> getSummaries(@RequestParam @Size(min = 1, max = 1000) List<Long> ids) {
+    return userService.getUserSummaries(ids);
+  }
+
+  @GetMapping(path = "/stream", produces = APPLICATION_NDJSON_VALUE)
+  public StreamingResponseBody streamAll() {
+    return outputStream -> userService.streamAllUsers(user -> writeLine(outputStream, user));
   }
 
   @DeleteMapping(path = "/{userId}")
@@ -45,13 +103,98 @@ public class UserController {
     userService.deleteTodoItemFromUser(userId, todoItemId);
   }
 
+  @PatchMapping(
+      path = "/{userId}/todoItems/status",
+      consumes = "application/json",
+      produces = "application/json")
+  public TodoItemStatusReport updateTodoItemsStatus(
+      @PathVariable Long userId, @Valid @RequestBody TodoItemStatusUpdate statusUpdate) {
+    return new TodoItemStatusReport(
+        userService.setTodoItemsDone(userId, statusUpdate.ids(), statusUpdate.done()));
+  }
+
+  @PostMapping(path = "/{userId}/todoItems/overdue/complete", produces = "application/json")
+  public TodoItemStatusReport completeOverdueTodoItems(@PathVariable Long userId) {
+    return new TodoItemStatusReport(userService.completeOverdueTodoItems(userId));
+  }
+
   @GetMapping(path = "/todoItems/done/{userId}", produces = "application/json")
-  public List<TodoItemDto> getAllDone(@PathVariable Long userId) {
-    return userService.getAllDoneTodoItemsForUser(userId);
+  public List<TodoItemDto> getAllDone(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size,
+      WebRequest webRequest) {
+    if (webRequest.checkNotModified(etag(userService.getUserVersion(userId)))) {
+      return null;
+    }
+    return userService.getAllDoneTodoItemsForUser(userId, PageRequest.of(page, size));
   }
 
   @GetMapping(path = "/todoItems/notDone/{userId}", produces = "application/json")
-  public List<TodoItemDto> getAllNotDone(@PathVariable Long userId) {
-    return userService.getAllNotDoneTodoItemsForUser(userId);
+  public List<TodoItemDto> getAllNotDone(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size,
+      WebRequest webRequest) {
+    if (webRequest.checkNotModified(etag(userService.getUserVersion(userId)))) {
+      return null;
+    }
+    return userService.getAllNotDoneTodoItemsForUser(userId, PageRequest.of(page, size));
+  }
+
+  @GetMapping(path = "/{userId}/todoItems/archived", produces = "application/json")
+  public List<TodoItemDto> getArchived(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size,
+      WebRequest webRequest) {
+    if (webRequest.checkNotModified(etag(userService.getUserVersion(userId)))) {
+      return null;
+    }
+    return userService.getArchivedTodoItemsForUser(userId, PageRequest.of(page, size));
+  }
+
+  @GetMapping(path = "/{userId}/todoItems/overdue", produces = "application/json")
+  public List<TodoItemDto> getOverdue(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int size) {
+    return userService.getOverdueTodoItemsForUser(userId, PageRequest.of(page, size));
+  }
+
+  @GetMapping(path = "/todoItems/due", produces = APPLICATION_NDJSON_VALUE)
+  public StreamingResponseBody streamDue(
+      @RequestParam(defaultValue = "60") @Min(1) @Max(10080) long withinMinutes) {
+    return outputStream ->
+        userService.streamDueTodoItems(
+            Duration.ofMinutes(withinMinutes), todoItem -> writeLine(outputStream, todoItem));
+  }
+
+  @GetMapping(path = "/{userId}/todoItems/search", produces = "application/json")
+  public List<TodoItemDto> searchTodoItems(
+      @PathVariable Long userId,
+      @RequestParam @NotBlank @Size(max = 200) String q,
+      @RequestParam(defaultValue = "0") @Min(0) int page,
+      @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+      WebRequest webRequest) {
+    if (webRequest.checkNotModified(etag(userService.getUserVersion(userId)))) {
+      return null;
+    }
+    return userService.searchTodoItems(userId, q, PageRequest.of(page, size));
+  }
+
+  // Every item mutation bumps the user's version, so it identifies the user and any page of its
+  // items; checking it first lets unchanged polls end with a 304 before anything else is loaded.
+  static String etag(long version) {
+    return "\"" + version + "\"";
+  }
+
+  private void writeLine(OutputStream outputStream, Object value) {
+    try {
+      outputStream.write(objectMapper.writeValueAsBytes(value));
+      outputStream.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 }
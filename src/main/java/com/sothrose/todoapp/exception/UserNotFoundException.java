@@ -1,7 +1,22 @@
 package com.sothrose.todoapp.exception;
 
+import static java.lang.String.format;
+
+import lombok.Getter;
+
+@Getter
 public class UserNotFoundException extends RuntimeException {
-  public UserNotFoundException(String message) {
-    super(message);
+  private final Long userId;
+
+  // Thrown for every request with an unknown id and always answered with a 404, so the stack
+  // trace would never be read; skipping it makes the exception as cheap as the object itself.
+  public UserNotFoundException(Long userId) {
+    super(null, null, false, false);
+    this.userId = userId;
+  }
+
+  @Override
+  public String getMessage() {
+    return format("User with id: [%s] not found", userId);
   }
 }
@@ -0,0 +1,8 @@
+package com.sothrose.todoapp.model;
+
+import java.util.List;
+
+public record BulkImportReport(int received, int imported, List<RecordError> errors) {
+
+  public record RecordError(int index, String message) {}
+}
@@ -0,0 +1,10 @@
+package com.sothrose.todoapp.model;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> items, Long nextCursor) {
+
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+}
@@ -2,16 +2,23 @@ package com.sothrose.todoapp.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 @Getter
 @NoArgsConstructor
+@AllArgsConstructor
 @Entity
 public class TodoItem {
+  public static final int ID_ALLOCATION_SIZE = 50;
+
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_item_seq")
-  @SequenceGenerator(name = "todo_item_seq", sequenceName = "todo_item_seq", allocationSize = 1)
+  @SequenceGenerator(
+      name = "todo_item_seq",
+      sequenceName = "todo_item_seq",
+      allocationSize = ID_ALLOCATION_SIZE)
   private Long id;
 
   private String todo;
@@ -19,14 +26,15 @@ public class TodoItem {
   private LocalDateTime completionTime;
   private boolean isDone;
 
-  public TodoItem(String todo, String info, LocalDateTime completionTime, boolean isDone) {
+  @Column(name = "user_id")
+  private Long userId;
+
+  public TodoItem(
+      Long userId, String todo, String info, LocalDateTime completionTime, boolean isDone) {
+    this.userId = userId;
     this.todo = todo;
     this.info = info;
     this.completionTime = completionTime;
     this.isDone = isDone;
   }
-
-  public TodoItemDto toDto() {
-    return new TodoItemDto(todo, info, completionTime, isDone);
-  }
 }
@@ -0,0 +1,40 @@
+package com.sothrose.todoapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@Table(name = "TODO_ITEM_CHANGE")
+@Entity
+public class TodoItemChange {
+  public static final int ID_ALLOCATION_SIZE = 50;
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_item_change_seq")
+  @SequenceGenerator(
+      name = "todo_item_change_seq",
+      sequenceName = "todo_item_change_seq",
+      allocationSize = ID_ALLOCATION_SIZE)
+  private Long id;
+
+  private Long userId;
+  private long userVersion;
+
+  @Enumerated(EnumType.STRING)
+  private TodoItemChangeType changeType;
+
+  private Long todoItemId;
+  private LocalDateTime createdAt;
+
+  public TodoItemChange(
+      Long userId, long userVersion, TodoItemChangeType changeType, Long todoItemId) {
+    this.userId = userId;
+    this.userVersion = userVersion;
+    this.changeType = changeType;
+    this.todoItemId = todoItemId;
+    createdAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,9 @@
+package com.sothrose.todoapp.model;
+
+public record TodoItemChangeDto(
+    long version, TodoItemChangeType type, Long todoItemId, TodoItemDto todoItem) {
+
+  public static TodoItemChangeDto resync(long version) {
+    return new TodoItemChangeDto(version, TodoItemChangeType.RESYNC, null, null);
+  }
+}
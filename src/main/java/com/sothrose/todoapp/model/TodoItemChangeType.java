@@ -0,0 +1,8 @@
+package com.sothrose.todoapp.model;
+
+public enum TodoItemChangeType {
+  ADDED,
+  DELETED,
+  USER_DELETED,
+  RESYNC
+}
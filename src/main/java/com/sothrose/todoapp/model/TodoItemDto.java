@@ -1,5 +1,8 @@
 package com.sothrose.todoapp.model;
 
+import static com.fasterxml.jackson.annotation.JsonProperty.Access.READ_ONLY;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -13,12 +16,20 @@ import lombok.*;
 @Getter
 @Setter
 public class TodoItemDto {
+  @JsonProperty(access = READ_ONLY)
+  private Long id;
+
   @NotNull private Long userId;
   @NotNull @NotEmpty private String todo;
   @NotNull @NotEmpty private String info;
   @NotNull @FutureOrPresent private LocalDateTime completionTime;
   private boolean isDone;
 
+  public TodoItemDto(
+      Long userId, String todo, String info, LocalDateTime completionTime, boolean isDone) {
+    this(null, userId, todo, info, completionTime, isDone);
+  }
+
   public TodoItemDto(String todo, String info, LocalDateTime completionTime, boolean isDone) {
     this.todo = todo;
     this.info = info;
@@ -27,6 +38,6 @@ public class TodoItemDto {
   }
 
   public TodoItem toTodoItem() {
-    return new TodoItem(todo, info, completionTime, isDone);
+    return new TodoItem(userId, todo, info, completionTime, isDone);
   }
 }
@@ -0,0 +1,19 @@
+package com.sothrose.todoapp.model;
+
+import java.time.LocalDateTime;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("todo_item")
+public record TodoItemRow(
+    @Id Long id,
+    String todo,
+    String info,
+    LocalDateTime completionTime,
+    boolean isDone,
+    Long userId) {
+
+  public TodoItemDto toDto() {
+    return new TodoItemDto(id, userId, todo, info, completionTime, isDone);
+  }
+}
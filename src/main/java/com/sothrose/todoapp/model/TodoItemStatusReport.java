@@ -0,0 +1,3 @@
+package com.sothrose.todoapp.model;
+
+public record TodoItemStatusReport(int updated) {}
@@ -4,18 +4,31 @@ import static com.google.common.collect.Lists.newArrayList;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
 @Getter
 @NoArgsConstructor
+// Deleted users stay behind as rows with deleted_at set until UserPurger has removed their items;
+// every query on the entity leaves them out.
+@SQLRestriction("deleted_at IS NULL")
 @Table(name = "TODO_USER")
 @Entity
 public class User {
+  public static final int ID_ALLOCATION_SIZE = 50;
+  public static final int TODO_ITEMS_BATCH_SIZE = 100;
+
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
-  @SequenceGenerator(name = "user_seq", sequenceName = "todo_user_seq", allocationSize = 1)
+  @SequenceGenerator(
+      name = "user_seq",
+      sequenceName = "todo_user_seq",
+      allocationSize = ID_ALLOCATION_SIZE)
   private Long id;
 
   private String username;
@@ -24,8 +37,21 @@ public class User {
   private String email;
   private LocalDate birthday;
 
-  @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-  @JoinColumn(name = "user_id")
+  @Version
+  @ColumnDefault("0")
+  private long version;
+
+  @ColumnDefault("0")
+  private int openCount;
+
+  @ColumnDefault("0")
+  private int doneCount;
+
+  private LocalDateTime deletedAt;
+
+  @OneToMany
+  @JoinColumn(name = "user_id", insertable = false, updatable = false)
+  @BatchSize(size = TODO_ITEMS_BATCH_SIZE)
   private List<TodoItem> todoItems;
 
   public User(
@@ -37,8 +63,4 @@ public class User {
     this.birthday = birthday;
     todoItems = newArrayList();
   }
-
-  public UserDto toDto() {
-    return new UserDto(username, firstName, lastName, email, birthday, newArrayList(todoItems));
-  }
 }
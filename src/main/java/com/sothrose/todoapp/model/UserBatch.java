@@ -0,0 +1,24 @@
+package com.sothrose.todoapp.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record UserBatch(Map<Long, UserDto> users, List<Long> missingIds) {
+
+  public static UserBatch of(Collection<Long> requestedIds, Map<Long, UserDto> usersById) {
+    var users = new LinkedHashMap<Long, UserDto>();
+    var missingIds = new ArrayList<Long>();
+    for (var id : requestedIds) {
+      var user = usersById.get(id);
+      if (user == null) {
+        missingIds.add(id);
+      } else {
+        users.put(id, user);
+      }
+    }
+    return new UserBatch(users, missingIds);
+  }
+}
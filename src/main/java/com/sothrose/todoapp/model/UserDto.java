@@ -18,7 +18,7 @@ public class UserDto {
   @NotNull @NotEmpty private String lastName;
   @NotNull @NotEmpty @Email private String email;
   @NotNull private LocalDate birthday;
-  private List<TodoItem> todoItems;
+  private List<TodoItemDto> todoItems;
 
   public UserDto(
       String username, String firstName, String lastName, String email, LocalDate birthday) {
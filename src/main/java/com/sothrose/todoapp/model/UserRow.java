@@ -0,0 +1,26 @@
+package com.sothrose.todoapp.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("todo_user")
+public record UserRow(
+    @Id Long id,
+    String username,
+    String firstName,
+    String lastName,
+    String email,
+    LocalDateTime birthday) {
+
+  public UserDto toDto(List<TodoItemDto> todoItems) {
+    return new UserDto(
+        username,
+        firstName,
+        lastName,
+        email,
+        birthday == null ? null : birthday.toLocalDate(),
+        todoItems);
+  }
+}
@@ -0,0 +1,3 @@
+package com.sothrose.todoapp.model;
+
+public record UserSummary(Long id, String username, int openCount, int doneCount) {}
@@ -0,0 +1,37 @@
+package com.sothrose.todoapp.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+public record UserTodoItemView(
+    Long userId,
+    String username,
+    String firstName,
+    String lastName,
+    String email,
+    LocalDate birthday,
+    Long todoItemId,
+    String todo,
+    String info,
+    LocalDateTime completionTime,
+    Boolean isDone) {
+
+  // The rows of one user as findViewWithTodoItemsById returns them; a user without items comes
+  // back as a single row without a todo item.
+  public static UserDto toUserDto(List<UserTodoItemView> rows) {
+    var todoItems = rows.stream().map(UserTodoItemView::todoItem).filter(Objects::nonNull).toList();
+    return rows.get(0).user().toDto(todoItems);
+  }
+
+  public UserView user() {
+    return new UserView(userId, username, firstName, lastName, email, birthday);
+  }
+
+  public TodoItemDto todoItem() {
+    return todoItemId == null
+        ? null
+        : new TodoItemDto(todoItemId, userId, todo, info, completionTime, isDone);
+  }
+}
@@ -0,0 +1,12 @@
+package com.sothrose.todoapp.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record UserView(
+    Long id, String username, String firstName, String lastName, String email, LocalDate birthday) {
+
+  public UserDto toDto(List<TodoItemDto> todoItems) {
+    return new UserDto(username, firstName, lastName, email, birthday, todoItems);
+  }
+}
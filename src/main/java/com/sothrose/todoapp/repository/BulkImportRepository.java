@@ -0,0 +1,198 @@
+package com.sothrose.todoapp.repository;
+
+import static java.util.Collections.nCopies;
+
+import com.sothrose.todoapp.model.TodoItem;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.User;
+import com.sothrose.todoapp.model.UserDto;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@RequiredArgsConstructor
+@Repository
+public class BulkImportRepository {
+  private static final List<String> USER_COLUMNS =
+      List.of("id", "username", "first_name", "last_name", "email", "birthday");
+  private static final List<String> TODO_ITEM_COLUMNS =
+      List.of("id", "todo", "info", "completion_time", "is_done", "user_id");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+
+  public Set<Long> findExistingUserIds(Collection<Long> userIds) {
+    if (userIds.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(
+        namedParameterJdbcTemplate.queryForList(
+            "SELECT id FROM todo_user WHERE id IN (:ids) AND deleted_at IS NULL",
+            Map.of("ids", userIds),
+            Long.class));
+  }
+
+  // One batched UPDATE per user bumps the version and adds the user's imported items to its
+  // open/done counters. Rows go out in user id order so concurrent imports lock users in the same
+  // order and cannot deadlock on each other.
+  public int[] incrementUserVersions(List<TodoItemDto> todoItems) {
+    var countsByUser = new TreeMap<Long, int[]>();
+    for (var todoItem : todoItems) {
+      var counts = countsByUser.computeIfAbsent(todoItem.getUserId(), userId -> new int[2]);
+      counts[todoItem.isDone() ? 1 : 0]++;
+    }
+    var rows = new ArrayList<Object[]>(countsByUser.size());
+    countsByUser.forEach((userId, counts) -> rows.add(new Object[] {counts[0], counts[1], userId}));
+    return jdbcTemplate.batchUpdate(
+        "UPDATE todo_user SET version = version + 1,"
+            + " open_count = open_count + ?, done_count = done_count + ?"
+            + " WHERE id = ? AND deleted_at IS NULL",
+        rows);
+  }
+
+  // One RESYNC change per user instead of one per imported item keeps the change feed small;
+  // subscribers reload the list when they see it.
+  public int insertResyncChanges(Collection<Long> userIds) {
+    if (userIds.isEmpty()) {
+      return 0;
+    }
+    var nextId = sequenceSupport().getSelectSequenceNextValString("todo_item_change_seq");
+    return namedParameterJdbcTemplate.update(
+        "INSERT INTO todo_item_change (id, user_id, user_version, change_type, created_at)"
+            + " SELECT "
+            + nextId
+            + ", id, version, 'RESYNC', LOCALTIMESTAMP"
+            + " FROM todo_user WHERE id IN (:ids) AND deleted_at IS NULL",
+        Map.of("ids", userIds));
+  }
+
+  public int insertUsers(List<UserDto> users) {
+    var ids = allocateIds("todo_user_seq", users.size(), User.ID_ALLOCATION_SIZE);
+    var rows = new ArrayList<Object[]>(users.size());
+    for (int i = 0; i < users.size(); i++) {
+      var user = users.get(i);
+      rows.add(
+          new Object[] {
+            ids.get(i),
+            user.getUsername(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getEmail(),
+            user.getBirthday()
+          });
+    }
+    return copyOrInsert("todo_user", USER_COLUMNS, rows);
+  }
+
+  public int insertTodoItems(List<TodoItemDto> todoItems) {
+    var ids = allocateIds("todo_item_seq", todoItems.size(), TodoItem.ID_ALLOCATION_SIZE);
+    var rows = new ArrayList<Object[]>(todoItems.size());
+    for (int i = 0; i < todoItems.size(); i++) {
+      var todoItem = todoItems.get(i);
+      rows.add(
+          new Object[] {
+            ids.get(i),
+            todoItem.getTodo(),
+            todoItem.getInfo(),
+            todoItem.getCompletionTime(),
+            todoItem.isDone(),
+            todoItem.getUserId()
+          });
+    }
+    return copyOrInsert("todo_item", TODO_ITEM_COLUMNS, rows);
+  }
+
+  // Ids are handed out the way Hibernate's pooled-lo optimiser does it, so rows written here
+  // never collide with ids the entities allocate from the same sequences. The next-value query
+  // comes from the dialect, and each call claims a whole block, so a batch costs one round trip
+  // per allocationSize rows on any database.
+  private List<Long> allocateIds(String sequence, int count, int allocationSize) {
+    var nextValue = sequenceSupport().getSequenceNextValString(sequence);
+    var ids = new ArrayList<Long>(count);
+    while (ids.size() < count) {
+      long start = jdbcTemplate.queryForObject(nextValue, Long.class);
+      for (long id = start; id < start + allocationSize && ids.size() < count; id++) {
+        ids.add(id);
+      }
+    }
+    return ids;
+  }
+
+  private SequenceSupport sequenceSupport() {
+    return entityManagerFactory
+        .unwrap(SessionFactoryImplementor.class)
+        .getJdbcServices()
+        .getDialect()
+        .getSequenceSupport();
+  }
+
+  private int copyOrInsert(String table, List<String> columns, List<Object[]> rows) {
+    if (rows.isEmpty()) {
+      return 0;
+    }
+
+    var columnList = String.join(", ", columns);
+
+    Long copied =
+        jdbcTemplate.execute(
+            (ConnectionCallback<Long>)
+                connection -> {
+                  if (!connection.isWrapperFor(PGConnection.class)) {
+                    return null;
+                  }
+                  // An SQLException from copyIn is translated by the template like any other;
+                  // an IOException means the stream broke and is surfaced the same way, so a
+                  // failed COPY is reported as a failed batch.
+                  var copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                  try {
+                    return copyManager.copyIn(
+                        "COPY " + table + " (" + columnList + ") FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(toCsv(rows)));
+                  } catch (IOException e) {
+                    throw new DataAccessResourceFailureException(
+                        "COPY into " + table + " failed", e);
+                  }
+                });
+    if (copied != null) {
+      return copied.intValue();
+    }
+
+    var placeholders = String.join(", ", nCopies(columns.size(), "?"));
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO " + table + " (" + columnList + ") VALUES (" + placeholders + ")", rows);
+    return rows.size();
+  }
+
+  private static String toCsv(List<Object[]> rows) {
+    var csv = new StringBuilder();
+    for (var row : rows) {
+      for (int i = 0; i < row.length; i++) {
+        if (i > 0) {
+          csv.append(',');
+        }
+        if (row[i] != null) {
+          csv.append('"').append(row[i].toString().replace("\"", "\"\"")).append('"');
+        }
+      }
+      csv.append('\n');
+    }
+    return csv.toString();
+  }
+}
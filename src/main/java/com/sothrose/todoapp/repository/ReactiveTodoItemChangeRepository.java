@@ -0,0 +1,43 @@
+package com.sothrose.todoapp.repository;
+
+import static com.sothrose.todoapp.service.TodoItemChangePublisher.CHANNEL;
+
+import com.sothrose.todoapp.model.TodoItemChangeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@RequiredArgsConstructor
+@Repository
+public class ReactiveTodoItemChangeRepository {
+  private static final String INSERT_AND_NOTIFY =
+      "WITH change AS ("
+          + " INSERT INTO todo_item_change"
+          + " (id, user_id, user_version, change_type, todo_item_id, created_at)"
+          + " VALUES (nextval('todo_item_change_seq'), :userId, :userVersion, :type, :todoItemId,"
+          + " LOCALTIMESTAMP)"
+          + " RETURNING user_id)"
+          + " SELECT pg_notify('"
+          + CHANNEL
+          + "', CAST(user_id AS text)) FROM change";
+
+  private final DatabaseClient databaseClient;
+
+  public Mono<Void> insert(
+      Long userId, long userVersion, TodoItemChangeType type, Long todoItemId) {
+    var spec =
+        databaseClient
+            .sql(INSERT_AND_NOTIFY)
+            .bind("userId", userId)
+            .bind("userVersion", userVersion)
+            .bind("type", type.name());
+    spec =
+        todoItemId == null
+            ? spec.bindNull("todoItemId", Long.class)
+            : spec.bind("todoItemId", todoItemId);
+    return spec.then();
+  }
+}
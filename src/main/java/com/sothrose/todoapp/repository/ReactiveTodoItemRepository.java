@@ -0,0 +1,74 @@
+package com.sothrose.todoapp.repository;
+
+import com.sothrose.todoapp.model.TodoItemRow;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveTodoItemRepository extends R2dbcRepository<TodoItemRow, Long> {
+
+  @Query("SELECT * FROM todo_item WHERE user_id = :userId ORDER BY completion_time, id")
+  Flux<TodoItemRow> findByUserId(Long userId);
+
+  @Query("SELECT * FROM todo_item WHERE user_id IN (:userIds) ORDER BY completion_time, id")
+  Flux<TodoItemRow> findByUserIdIn(Collection<Long> userIds);
+
+  @Query(
+      "SELECT * FROM todo_item WHERE user_id = :userId AND is_done = :done"
+          + " ORDER BY completion_time, id LIMIT :limit OFFSET :offset")
+  Flux<TodoItemRow> findByUserIdAndDone(Long userId, boolean done, int limit, long offset);
+
+  @Query(
+      "SELECT * FROM todo_item WHERE user_id = :userId AND is_done = FALSE"
+          + " AND completion_time < :now ORDER BY completion_time, id"
+          + " LIMIT :limit OFFSET :offset")
+  Flux<TodoItemRow> findOverdueByUserId(Long userId, LocalDateTime now, int limit, long offset);
+
+  @Query(
+      "SELECT * FROM todo_item WHERE is_done = FALSE"
+          + " AND completion_time >= :from AND completion_time < :to"
+          + " AND user_id IN (SELECT id FROM todo_user WHERE deleted_at IS NULL)"
+          + " ORDER BY completion_time, id")
+  Flux<TodoItemRow> findDueBetween(LocalDateTime from, LocalDateTime to);
+
+  @Query(
+      "SELECT id, todo, info, completion_time, is_done, user_id FROM todo_item_archive"
+          + " WHERE user_id = :userId ORDER BY completion_time DESC, id DESC"
+          + " LIMIT :limit OFFSET :offset")
+  Flux<TodoItemRow> findArchivedByUserId(Long userId, int limit, long offset);
+
+  @Query(
+      "SELECT t.id, t.todo, t.info, t.completion_time, t.is_done, t.user_id"
+          + " FROM todo_item t, to_tsquery('simple', :query) q"
+          + " WHERE t.user_id = :userId AND t.search_vector @@ q"
+          + " ORDER BY ts_rank(t.search_vector, q) DESC, t.id LIMIT :limit OFFSET :offset")
+  Flux<TodoItemRow> search(Long userId, String query, int limit, long offset);
+
+  @Query(
+      "INSERT INTO todo_item (id, todo, info, completion_time, is_done, user_id)"
+          + " VALUES (nextval('todo_item_seq'), :todo, :info, :completionTime, :done, :userId)"
+          + " RETURNING id")
+  Mono<Long> insert(
+      String todo, String info, LocalDateTime completionTime, boolean done, Long userId);
+
+  @Modifying
+  @Query(
+      "UPDATE todo_item SET is_done = :done"
+          + " WHERE user_id = :userId AND id IN (:ids) AND is_done <> :done")
+  Mono<Integer> updateDone(Long userId, Collection<Long> ids, boolean done);
+
+  @Modifying
+  @Query(
+      "UPDATE todo_item SET is_done = TRUE"
+          + " WHERE user_id = :userId AND is_done = FALSE AND completion_time < :now")
+  Mono<Integer> completeOverdue(Long userId, LocalDateTime now);
+
+  @Query("DELETE FROM todo_item WHERE id = :id AND user_id = :userId RETURNING is_done")
+  Mono<Boolean> deleteByIdAndUserId(Long id, Long userId);
+}
@@ -0,0 +1,60 @@
+package com.sothrose.todoapp.repository;
+
+import com.sothrose.todoapp.model.UserRow;
+import com.sothrose.todoapp.model.UserSummary;
+import java.time.LocalDate;
+import java.util.Collection;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+
+  @Query("SELECT * FROM todo_user WHERE id = :id AND deleted_at IS NULL")
+  Mono<UserRow> findById(Long id);
+
+  @Query("SELECT EXISTS (SELECT 1 FROM todo_user WHERE id = :id AND deleted_at IS NULL)")
+  Mono<Boolean> existsById(Long id);
+
+  @Query("SELECT * FROM todo_user WHERE id IN (:ids) AND deleted_at IS NULL")
+  Flux<UserRow> findByIdIn(Collection<Long> ids);
+
+  @Query(
+      "SELECT * FROM todo_user WHERE id > :after AND deleted_at IS NULL ORDER BY id LIMIT :limit")
+  Flux<UserRow> findPageAfter(Long after, int limit);
+
+  @Query(
+      "SELECT id, username, open_count, done_count FROM todo_user"
+          + " WHERE id IN (:ids) AND deleted_at IS NULL ORDER BY id")
+  Flux<UserSummary> findSummariesByIdIn(Collection<Long> ids);
+
+  @Query("SELECT version FROM todo_user WHERE id = :id AND deleted_at IS NULL")
+  Mono<Long> findVersionById(Long id);
+
+  @Query(
+      "UPDATE todo_user SET version = version + 1"
+          + " WHERE id = :id AND deleted_at IS NULL RETURNING version")
+  Mono<Long> incrementVersion(Long id);
+
+  @Query(
+      "UPDATE todo_user SET version = version + 1, open_count = open_count + :openDelta,"
+          + " done_count = done_count + :doneDelta"
+          + " WHERE id = :id AND deleted_at IS NULL RETURNING version")
+  Mono<Long> incrementVersion(Long id, int openDelta, int doneDelta);
+
+  @Modifying
+  @Query("UPDATE todo_user SET deleted_at = LOCALTIMESTAMP WHERE id = :id AND deleted_at IS NULL")
+  Mono<Integer> markDeleted(Long id);
+
+  @Modifying
+  @Query(
+      "INSERT INTO todo_user (id, username, first_name, last_name, email, birthday)"
+          + " VALUES (nextval('todo_user_seq'), :username, :firstName, :lastName, :email,"
+          + " :birthday)")
+  Mono<Integer> insert(
+      String username, String firstName, String lastName, String email, LocalDate birthday);
+}
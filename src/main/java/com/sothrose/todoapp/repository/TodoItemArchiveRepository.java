@@ -0,0 +1,77 @@
+package com.sothrose.todoapp.repository;
+
+import com.sothrose.todoapp.model.TodoItemDto;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@RequiredArgsConstructor
+@Repository
+public class TodoItemArchiveRepository {
+  // PostgreSQL only (V9). One statement moves a batch of done items into the archive, bumps the
+  // version of every user that lost items and records a RESYNC change for each of them.
+  // SKIP LOCKED leaves rows that a user is editing right now for a later run.
+  private static final String ARCHIVE_BATCH =
+      "WITH batch AS ("
+          + " SELECT id, user_id FROM todo_item"
+          + " WHERE is_done = TRUE AND completion_time < :cutoff"
+          + " AND NOT EXISTS (SELECT 1 FROM todo_user u"
+          + " WHERE u.id = todo_item.user_id AND u.deleted_at IS NOT NULL)"
+          + " LIMIT :batchSize FOR UPDATE SKIP LOCKED),"
+          + " moved AS ("
+          + " DELETE FROM todo_item t USING batch b WHERE t.id = b.id AND t.user_id = b.user_id"
+          + " RETURNING t.id, t.todo, t.info, t.completion_time, t.is_done, t.user_id),"
+          + " archived AS ("
+          + " INSERT INTO todo_item_archive"
+          + " (id, todo, info, completion_time, is_done, user_id, archived_at)"
+          + " SELECT id, todo, info, completion_time, is_done, user_id, LOCALTIMESTAMP FROM moved"
+          + " RETURNING user_id),"
+          + " bumped AS ("
+          + " UPDATE todo_user SET version = version + 1"
+          + " WHERE id IN (SELECT user_id FROM archived) RETURNING id, version),"
+          + " changes AS ("
+          + " INSERT INTO todo_item_change (id, user_id, user_version, change_type, created_at)"
+          + " SELECT nextval('todo_item_change_seq'), id, version, 'RESYNC', LOCALTIMESTAMP"
+          + " FROM bumped)"
+          + " SELECT user_id, COUNT(*) AS archived FROM archived GROUP BY user_id";
+
+  private static final String FIND_BY_USER_ID =
+      "SELECT id, user_id, todo, info, completion_time, is_done FROM todo_item_archive"
+          + " WHERE user_id = :userId ORDER BY completion_time DESC, id DESC"
+          + " LIMIT :limit OFFSET :offset";
+
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  public Map<Long, Integer> archiveDoneBefore(LocalDateTime cutoff, int batchSize) {
+    var archivedByUser = new HashMap<Long, Integer>();
+    namedParameterJdbcTemplate.query(
+        ARCHIVE_BATCH,
+        Map.of("cutoff", cutoff, "batchSize", batchSize),
+        rs -> {
+          archivedByUser.put(rs.getLong("user_id"), rs.getInt("archived"));
+        });
+    return archivedByUser;
+  }
+
+  public List<TodoItemDto> findByUserId(Long userId, Pageable pageable) {
+    return namedParameterJdbcTemplate.query(
+        FIND_BY_USER_ID,
+        Map.of(
+            "userId", userId,
+            "limit", pageable.getPageSize(),
+            "offset", pageable.getOffset()),
+        (rs, rowNum) ->
+            new TodoItemDto(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getString("todo"),
+                rs.getString("info"),
+                rs.getObject("completion_time", LocalDateTime.class),
+                rs.getBoolean("is_done")));
+  }
+}
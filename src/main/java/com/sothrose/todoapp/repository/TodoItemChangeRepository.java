@@ -0,0 +1,21 @@
+package com.sothrose.todoapp.repository;
+
+import com.sothrose.todoapp.model.TodoItemChange;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TodoItemChangeRepository extends JpaRepository<TodoItemChange, Long> {
+
+  List<TodoItemChange> findByUserIdAndUserVersionGreaterThanOrderByUserVersionAsc(
+      Long userId, long userVersion, Limit limit);
+
+  @Modifying
+  @Query("delete from TodoItemChange c where c.createdAt < :cutoff")
+  int deleteCreatedBefore(LocalDateTime cutoff);
+}
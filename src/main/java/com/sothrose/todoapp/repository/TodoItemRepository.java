@@ -0,0 +1,76 @@
+package com.sothrose.todoapp.repository;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+import com.sothrose.todoapp.model.TodoItem;
+import com.sothrose.todoapp.model.TodoItemDto;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TodoItemRepository extends JpaRepository<TodoItem, Long> {
+  String TODO_ITEM_DTO =
+      "new com.sothrose.todoapp.model.TodoItemDto("
+          + "t.id, t.userId, t.todo, t.info, t.completionTime, t.isDone)";
+
+  @Query(
+      "select "
+          + TODO_ITEM_DTO
+          + " from TodoItem t where t.userId = :userId and t.isDone = :done"
+          + " order by t.completionTime, t.id")
+  List<TodoItemDto> findByUserIdAndDone(Long userId, boolean done, Pageable pageable);
+
+  @Query(
+      "select "
+          + TODO_ITEM_DTO
+          + " from TodoItem t where t.userId = :userId and t.isDone = false"
+          + " and t.completionTime < :now order by t.completionTime, t.id")
+  List<TodoItemDto> findOverdueByUserId(Long userId, LocalDateTime now, Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query(
+      "select "
+          + TODO_ITEM_DTO
+          + " from TodoItem t where t.isDone = false"
+          + " and t.completionTime >= :from and t.completionTime < :to"
+          + " and t.userId in (select u.id from User u where u.deletedAt is null)"
+          + " order by t.completionTime, t.id")
+  Stream<TodoItemDto> streamDueBetween(LocalDateTime from, LocalDateTime to);
+
+  @Query(
+      "select "
+          + TODO_ITEM_DTO
+          + " from TodoItem t where t.userId in :userIds order by t.completionTime, t.id")
+  List<TodoItemDto> findDtosByUserIdIn(Collection<Long> userIds);
+
+  @Query("select " + TODO_ITEM_DTO + " from TodoItem t where t.id in :ids")
+  List<TodoItemDto> findDtosByIdIn(Collection<Long> ids);
+
+  // Rows already in the requested state are skipped, so the count only covers real transitions.
+  @Modifying
+  @Query(
+      "update TodoItem t set t.isDone = :done"
+          + " where t.userId = :userId and t.id in :ids and t.isDone <> :done")
+  int updateDone(Long userId, Collection<Long> ids, boolean done);
+
+  @Modifying
+  @Query(
+      "update TodoItem t set t.isDone = true"
+          + " where t.userId = :userId and t.isDone = false and t.completionTime < :now")
+  int completeOverdue(Long userId, LocalDateTime now);
+
+  // The status is part of the predicate so callers know which counter the deleted row was in,
+  // even when the item is flipped concurrently.
+  @Modifying
+  @Query("delete from TodoItem t where t.id = :id and t.userId = :userId and t.isDone = :done")
+  int deleteByIdAndUserIdAndDone(Long id, Long userId, boolean done);
+}
@@ -0,0 +1,42 @@
+package com.sothrose.todoapp.repository;
+
+import com.sothrose.todoapp.model.TodoItemDto;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@RequiredArgsConstructor
+@Repository
+public class TodoItemSearchRepository {
+  // PostgreSQL only: search_vector is a generated tsvector column with a GIN index (V6).
+  private static final String SEARCH_QUERY =
+      "SELECT t.id, t.user_id, t.todo, t.info, t.completion_time, t.is_done"
+          + " FROM todo_item t, to_tsquery('simple', :query) q"
+          + " WHERE t.user_id = :userId AND t.search_vector @@ q"
+          + " ORDER BY ts_rank(t.search_vector, q) DESC, t.id"
+          + " LIMIT :limit OFFSET :offset";
+
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  public List<TodoItemDto> search(Long userId, String tsQuery, Pageable pageable) {
+    return namedParameterJdbcTemplate.query(
+        SEARCH_QUERY,
+        Map.of(
+            "query", tsQuery,
+            "userId", userId,
+            "limit", pageable.getPageSize(),
+            "offset", pageable.getOffset()),
+        (rs, rowNum) ->
+            new TodoItemDto(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getString("todo"),
+                rs.getString("info"),
+                rs.getObject("completion_time", LocalDateTime.class),
+                rs.getBoolean("is_done")));
+  }
+}
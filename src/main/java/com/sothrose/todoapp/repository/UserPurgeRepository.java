@@ -0,0 +1,47 @@
+package com.sothrose.todoapp.repository;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@RequiredArgsConstructor
+@Repository
+public class UserPurgeRepository {
+  // PostgreSQL only: TODO_ITEM_ARCHIVE exists from V9 and the deleted-user scan uses the partial
+  // index from V11. Both item deletes repeat user_id outside the subquery so they only touch the
+  // user's own partition.
+  private static final String DELETE_TODO_ITEMS =
+      "DELETE FROM todo_item WHERE user_id = ? AND id IN"
+          + " (SELECT id FROM todo_item WHERE user_id = ? LIMIT ?)";
+  private static final String DELETE_ARCHIVED_TODO_ITEMS =
+      "DELETE FROM todo_item_archive WHERE user_id = ? AND id IN"
+          + " (SELECT id FROM todo_item_archive WHERE user_id = ? LIMIT ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public List<Long> findDeletedUserIds(int limit) {
+    return jdbcTemplate.queryForList(
+        "SELECT id FROM todo_user WHERE deleted_at IS NOT NULL ORDER BY deleted_at, id LIMIT ?",
+        Long.class,
+        limit);
+  }
+
+  public long countDeletedUsers() {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM todo_user WHERE deleted_at IS NOT NULL", Long.class);
+  }
+
+  public int deleteTodoItems(Long userId, int batchSize) {
+    return jdbcTemplate.update(DELETE_TODO_ITEMS, userId, userId, batchSize);
+  }
+
+  public int deleteArchivedTodoItems(Long userId, int batchSize) {
+    return jdbcTemplate.update(DELETE_ARCHIVED_TODO_ITEMS, userId, userId, batchSize);
+  }
+
+  public int deleteUser(Long userId) {
+    return jdbcTemplate.update(
+        "DELETE FROM todo_user WHERE id = ? AND deleted_at IS NOT NULL", userId);
+  }
+}
@@ -1,8 +1,63 @@
 package com.sothrose.todoapp.repository;
 
 import com.sothrose.todoapp.model.User;
+import com.sothrose.todoapp.model.UserSummary;
+import com.sothrose.todoapp.model.UserTodoItemView;
+import com.sothrose.todoapp.model.UserView;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {}
+public interface UserRepository extends JpaRepository<User, Long> {
+
+  String USER_VIEW =
+      "new com.sothrose.todoapp.model.UserView("
+          + "u.id, u.username, u.firstName, u.lastName, u.email, u.birthday)";
+
+  @Query(
+      "select new com.sothrose.todoapp.model.UserTodoItemView("
+          + "u.id, u.username, u.firstName, u.lastName, u.email, u.birthday,"
+          + " t.id, t.todo, t.info, t.completionTime, t.isDone)"
+          + " from User u left join TodoItem t on t.userId = u.id"
+          + " where u.id = :id order by t.completionTime, t.id")
+  List<UserTodoItemView> findViewWithTodoItemsById(Long id);
+
+  @Query("select " + USER_VIEW + " from User u where u.id > :after order by u.id")
+  List<UserView> findViewsAfter(Long after, Limit limit);
+
+  @Query("select " + USER_VIEW + " from User u where u.id in :ids")
+  List<UserView> findViewsByIdIn(Collection<Long> ids);
+
+  @Query(
+      "select new com.sothrose.todoapp.model.UserSummary("
+          + "u.id, u.username, u.openCount, u.doneCount)"
+          + " from User u where u.id in :ids order by u.id")
+  List<UserSummary> findSummariesByIdIn(Collection<Long> ids);
+
+  @Query("select u.version from User u where u.id = :id")
+  Optional<Long> findVersionById(Long id);
+
+  @Modifying
+  @Query("update User u set u.version = u.version + 1 where u.id = :id and u.deletedAt is null")
+  int incrementVersion(Long id);
+
+  // Item writes move the open/done counters in the same statement that bumps the version, so
+  // keeping them costs no extra round trip.
+  @Modifying
+  @Query(
+      "update User u set u.version = u.version + 1,"
+          + " u.openCount = u.openCount + :openDelta, u.doneCount = u.doneCount + :doneDelta"
+          + " where u.id = :id and u.deletedAt is null")
+  int incrementVersion(Long id, int openDelta, int doneDelta);
+
+  @Modifying
+  @Query("update User u set u.deletedAt = :deletedAt where u.id = :id and u.deletedAt is null")
+  int markDeleted(Long id, LocalDateTime deletedAt);
+}
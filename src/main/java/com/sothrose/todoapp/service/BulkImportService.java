@@ -0,0 +1,174 @@
+package com.sothrose.todoapp.service;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toSet;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sothrose.todoapp.config.BulkImportProperties;
+import com.sothrose.todoapp.model.BulkImportReport;
+import com.sothrose.todoapp.model.BulkImportReport.RecordError;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.repository.BulkImportRepository;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class BulkImportService {
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final BulkImportRepository bulkImportRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final BulkImportProperties bulkImportProperties;
+  private final UserCache userCache;
+  private final TodoItemChangePublisher todoItemChangePublisher;
+
+  public BulkImportReport importUsers(InputStream body) throws IOException {
+    log.info("Bulk import of users started");
+    var report = importRecords(body, UserDto.class, this::writeUsers);
+    log.info(
+        "Bulk import of users finished, received: [{}], imported: [{}], rejected: [{}]",
+        report.received(),
+        report.imported(),
+        report.errors().size());
+    return report;
+  }
+
+  public BulkImportReport importTodoItems(InputStream body) throws IOException {
+    log.info("Bulk import of todoItems started");
+    var report = importRecords(body, TodoItemDto.class, this::writeTodoItems);
+    log.info(
+        "Bulk import of todoItems finished, received: [{}], imported: [{}], rejected: [{}]",
+        report.received(),
+        report.imported(),
+        report.errors().size());
+    return report;
+  }
+
+  private <T> BulkImportReport importRecords(
+      InputStream body, Class<T> type, BatchWriter<T> writer) throws IOException {
+    var batchSize = bulkImportProperties.batchSize();
+    var batch = new ArrayList<IndexedRecord<T>>(batchSize);
+    var errors = new ArrayList<RecordError>();
+    var received = 0;
+    var imported = 0;
+
+    try (var parser = objectMapper.createParser(body)) {
+      var token = parser.nextToken();
+      if (token == JsonToken.START_ARRAY) {
+        token = parser.nextToken();
+      }
+      while (token != null && token != JsonToken.END_ARRAY) {
+        JsonNode node = parser.readValueAsTree();
+        var index = received++;
+        parseRecord(node, type, index, errors)
+            .ifPresent(record -> batch.add(new IndexedRecord<>(index, record)));
+        if (batch.size() == batchSize) {
+          imported += flush(batch, writer, errors);
+          batch.clear();
+        }
+        token = parser.nextToken();
+      }
+    } catch (StreamReadException e) {
+      // Only records read in full are counted, so the record that broke the stream is the next one.
+      errors.add(new RecordError(received, "Malformed JSON: " + e.getOriginalMessage()));
+    }
+
+    imported += flush(batch, writer, errors);
+    return new BulkImportReport(received, imported, errors);
+  }
+
+  private <T> Optional<T> parseRecord(
+      JsonNode node, Class<T> type, int index, List<RecordError> errors) {
+    T record;
+    try {
+      record = objectMapper.treeToValue(node, type);
+    } catch (JsonProcessingException e) {
+      errors.add(new RecordError(index, e.getOriginalMessage()));
+      return Optional.empty();
+    }
+
+    var violations = validator.validate(record);
+    if (!violations.isEmpty()) {
+      errors.add(
+          new RecordError(
+              index,
+              violations.stream()
+                  .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                  .sorted()
+                  .collect(joining(", "))));
+      return Optional.empty();
+    }
+    return Optional.of(record);
+  }
+
+  private <T> int flush(
+      List<IndexedRecord<T>> batch, BatchWriter<T> writer, List<RecordError> errors) {
+    if (batch.isEmpty()) {
+      return 0;
+    }
+
+    var errorsBeforeBatch = errors.size();
+    try {
+      return transactionTemplate.execute(status -> writer.write(batch, errors));
+    } catch (DataAccessException e) {
+      log.warn("Bulk import batch of [{}] records failed", batch.size(), e);
+      errors.subList(errorsBeforeBatch, errors.size()).clear();
+      var message = "Batch write failed: " + e.getMostSpecificCause().getMessage();
+      batch.forEach(record -> errors.add(new RecordError(record.index(), message)));
+      return 0;
+    }
+  }
+
+  private int writeUsers(List<IndexedRecord<UserDto>> batch, List<RecordError> errors) {
+    return bulkImportRepository.insertUsers(batch.stream().map(IndexedRecord::value).toList());
+  }
+
+  private int writeTodoItems(List<IndexedRecord<TodoItemDto>> batch, List<RecordError> errors) {
+    var existingUserIds =
+        bulkImportRepository.findExistingUserIds(
+            batch.stream().map(record -> record.value().getUserId()).collect(toSet()));
+
+    var todoItems = new ArrayList<TodoItemDto>(batch.size());
+    for (var record : batch) {
+      var userId = record.value().getUserId();
+      if (existingUserIds.contains(userId)) {
+        todoItems.add(record.value());
+      } else {
+        errors.add(
+            new RecordError(record.index(), format("User with id: [%s] not found", userId)));
+      }
+    }
+    var imported = bulkImportRepository.insertTodoItems(todoItems);
+    var userIds = todoItems.stream().map(TodoItemDto::getUserId).collect(toSet());
+    bulkImportRepository.incrementUserVersions(todoItems);
+    bulkImportRepository.insertResyncChanges(userIds);
+    todoItemChangePublisher.notifyChanged(userIds);
+    userIds.forEach(userCache::invalidate);
+    return imported;
+  }
+
+  private record IndexedRecord<T>(int index, T value) {}
+
+  @FunctionalInterface
+  private interface BatchWriter<T> {
+    int write(List<IndexedRecord<T>> batch, List<RecordError> errors);
+  }
+}
@@ -0,0 +1,280 @@
+package com.sothrose.todoapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.sothrose.todoapp.config.UserCacheProperties;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class CaffeineUserCache implements UserCache {
+  private static final String REQUESTS_METRIC = "todoapp.cache.requests";
+
+  private final Cache<Long, Entry> cache;
+  private final Cache<TodoItemsKey, List<TodoItemDto>> todoItemPages;
+  private final Counter userHits;
+  private final Counter userMisses;
+  private final Counter todoItemsHits;
+  private final Counter todoItemsMisses;
+  private final Counter versionHits;
+  private final Counter versionMisses;
+
+  public CaffeineUserCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+    cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfterWrite(properties.expireAfterWrite())
+            .recordStats()
+            .build();
+    todoItemPages =
+        Caffeine.newBuilder()
+            .maximumWeight(properties.maximumTodoItems())
+            .<TodoItemsKey, List<TodoItemDto>>weigher((key, todoItems) -> todoItems.size() + 1)
+            .expireAfterWrite(properties.expireAfterWrite())
+            .removalListener(
+                (TodoItemsKey key, List<TodoItemDto> todoItems, RemovalCause cause) -> {
+                  if (cause != RemovalCause.REPLACED) {
+                    key.entry().pageKeys.remove(key);
+                  }
+                })
+            .build();
+
+    userHits = requestCounter(meterRegistry, "user", "hit");
+    userMisses = requestCounter(meterRegistry, "user", "miss");
+    todoItemsHits = requestCounter(meterRegistry, "todoItems", "hit");
+    todoItemsMisses = requestCounter(meterRegistry, "todoItems", "miss");
+    versionHits = requestCounter(meterRegistry, "version", "hit");
+    versionMisses = requestCounter(meterRegistry, "version", "miss");
+    FunctionCounter.builder("todoapp.cache.evictions", cache, c -> c.stats().evictionCount())
+        .description("Users evicted from the cache by size or expiry")
+        .register(meterRegistry);
+    Gauge.builder("todoapp.cache.size", cache, Cache::estimatedSize)
+        .description("Users currently held in the cache")
+        .register(meterRegistry);
+    Gauge.builder(
+            "todoapp.cache.todo-items",
+            todoItemPages,
+            c -> c.policy().eviction().orElseThrow().weightedSize().orElse(0))
+        .description("Todo items currently held in cached pages")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public UserDto getUser(Long userId, Supplier<UserDto> loader) {
+    var entry = cache.get(userId, id -> new Entry());
+    var load = new CompletableFuture<UserDto>();
+    var user = entry.user.compareAndExchange(null, load);
+    if (user != null) {
+      userHits.increment();
+      return join(user);
+    }
+
+    userMisses.increment();
+    try {
+      return complete(userId, entry, load, loader.get());
+    } catch (RuntimeException | Error e) {
+      fail(userId, entry, load, e);
+      throw e;
+    }
+  }
+
+  // Ids already loaded or being loaded by another caller are joined; the rest are claimed and
+  // fetched with a single loader call.
+  @Override
+  public Map<Long, UserDto> getUsers(
+      Collection<Long> userIds, Function<Collection<Long>, Map<Long, UserDto>> loader) {
+    var claimed = new HashMap<Long, Claim>();
+    var joined = new HashMap<Long, CompletableFuture<UserDto>>();
+    for (var userId : userIds) {
+      var entry = cache.get(userId, id -> new Entry());
+      var load = new CompletableFuture<UserDto>();
+      var user = entry.user.compareAndExchange(null, load);
+      if (user != null) {
+        userHits.increment();
+        joined.put(userId, user);
+      } else {
+        userMisses.increment();
+        claimed.put(userId, new Claim(entry, load));
+      }
+    }
+
+    var users = new HashMap<Long, UserDto>();
+    if (!claimed.isEmpty()) {
+      Map<Long, UserDto> loaded;
+      try {
+        loaded = loader.apply(claimed.keySet());
+      } catch (RuntimeException | Error e) {
+        claimed.forEach((userId, claim) -> fail(userId, claim.entry(), claim.load(), e));
+        throw e;
+      }
+      claimed.forEach(
+          (userId, claim) -> {
+            var user = complete(userId, claim.entry(), claim.load(), loaded.get(userId));
+            putIfPresent(users, userId, user);
+          });
+    }
+    joined.forEach((userId, user) -> putIfPresent(users, userId, join(user)));
+    return users;
+  }
+
+  @Override
+  public List<TodoItemDto> getTodoItems(
+      Long userId, boolean done, Pageable pageable, Supplier<List<TodoItemDto>> loader) {
+    var entry = cache.get(userId, id -> new Entry());
+    var key = new TodoItemsKey(entry, done, pageable.getPageNumber(), pageable.getPageSize());
+    var todoItems = todoItemPages.getIfPresent(key);
+    if (todoItems != null) {
+      todoItemsHits.increment();
+      return todoItems;
+    }
+
+    todoItemsMisses.increment();
+    try {
+      todoItems = loader.get();
+    } catch (RuntimeException | Error e) {
+      removeIfEmpty(userId, entry);
+      throw e;
+    }
+    entry.pageKeys.add(key);
+    todoItemPages.put(key, todoItems);
+    return todoItems;
+  }
+
+  @Override
+  public long getVersion(Long userId, Supplier<Long> loader) {
+    var entry = cache.get(userId, id -> new Entry());
+    var version = entry.version;
+    if (version != null) {
+      versionHits.increment();
+      return version;
+    }
+
+    versionMisses.increment();
+    try {
+      version = loader.get();
+    } catch (RuntimeException | Error e) {
+      removeIfEmpty(userId, entry);
+      throw e;
+    }
+    entry.version = version;
+    return version;
+  }
+
+  // Eviction waits for the surrounding transaction to finish; evicting earlier would let a
+  // concurrent reader re-cache the rows the writer is about to replace.
+  @Override
+  public void invalidate(Long userId) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      evict(userId);
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            evict(userId);
+          }
+        });
+  }
+
+  private void evict(Long userId) {
+    var entry = cache.asMap().remove(userId);
+    if (entry != null) {
+      todoItemPages.invalidateAll(List.copyOf(entry.pageKeys));
+    }
+  }
+
+  // A missing user completes its waiters with null but is not kept, so it is looked up again next
+  // time; a failed load is likewise dropped so the next caller retries it.
+  private UserDto complete(
+      Long userId, Entry entry, CompletableFuture<UserDto> load, UserDto user) {
+    if (user == null) {
+      entry.user.compareAndSet(load, null);
+      removeIfEmpty(userId, entry);
+    }
+    load.complete(user);
+    return user;
+  }
+
+  private void fail(Long userId, Entry entry, CompletableFuture<UserDto> load, Throwable e) {
+    entry.user.compareAndSet(load, null);
+    removeIfEmpty(userId, entry);
+    load.completeExceptionally(e);
+  }
+
+  // Lookups of unknown ids would otherwise leave empty entries behind and push real users out of
+  // the cache. Racing a concurrent fill only drops what it cached, as an invalidation would.
+  private void removeIfEmpty(Long userId, Entry entry) {
+    if (entry.isEmpty()) {
+      cache.asMap().remove(userId, entry);
+    }
+  }
+
+  private static UserDto join(CompletableFuture<UserDto> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static void putIfPresent(Map<Long, UserDto> users, Long userId, UserDto user) {
+    if (user != null) {
+      users.put(userId, user);
+    }
+  }
+
+  private static Counter requestCounter(MeterRegistry meterRegistry, String kind, String result) {
+    return Counter.builder(REQUESTS_METRIC)
+        .tag("kind", kind)
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  // Loads fill the entry they looked up before querying, so a result read before a concurrent
+  // write lands in an entry that the write has already dropped from the cache. The user slot holds
+  // the load itself, so concurrent lookups of one user share a single query, and an invalidation
+  // also stops later callers from joining a load that started before the write.
+  //
+  // Todo item pages live in their own cache, bounded by the number of items they hold, so paging
+  // through one user cannot grow an entry without limit. Their keys hold the entry itself rather
+  // than the user id: a page cached from a dropped entry is unreachable and simply ages out.
+  private static final class Entry {
+    private final AtomicReference<CompletableFuture<UserDto>> user = new AtomicReference<>();
+    private volatile Long version;
+    private final Set<TodoItemsKey> pageKeys = ConcurrentHashMap.newKeySet();
+
+    private boolean isEmpty() {
+      return user.get() == null && version == null && pageKeys.isEmpty();
+    }
+  }
+
+  private record TodoItemsKey(Entry entry, boolean done, int page, int size) {}
+
+  private record Claim(Entry entry, CompletableFuture<UserDto> load) {}
+}
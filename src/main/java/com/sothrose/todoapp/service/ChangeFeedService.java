@@ -0,0 +1,96 @@
+package com.sothrose.todoapp.service;
+
+import static com.sothrose.todoapp.model.TodoItemChangeType.ADDED;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+import com.sothrose.todoapp.config.ChangeFeedProperties;
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import com.sothrose.todoapp.model.TodoItemChange;
+import com.sothrose.todoapp.model.TodoItemChangeDto;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.repository.TodoItemChangeRepository;
+import com.sothrose.todoapp.repository.TodoItemRepository;
+import com.sothrose.todoapp.repository.UserRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ChangeFeedService {
+
+  private final TodoItemChangeRepository todoItemChangeRepository;
+  private final TodoItemRepository todoItemRepository;
+  private final UserRepository userRepository;
+  private final TodoItemChangeNotifier todoItemChangeNotifier;
+  private final ChangeFeedProperties changeFeedProperties;
+
+  // Deliberately not read-only: a read-only transaction may be routed to a lagging replica and
+  // miss the very change whose notification woke the poll.
+  @Transactional
+  public List<TodoItemChangeDto> getChanges(Long userId, long sinceVersion) {
+    var changes =
+        todoItemChangeRepository.findByUserIdAndUserVersionGreaterThanOrderByUserVersionAsc(
+            userId, sinceVersion, Limit.of(changeFeedProperties.maxChanges()));
+    if (changes.isEmpty()) {
+      if (!userRepository.existsById(userId)) {
+        throw new UserNotFoundException(userId);
+      }
+      return List.of();
+    }
+
+    // Every version bump writes exactly one change, so a gap means the changes after the cursor
+    // have already been purged and the client has to reload the full list.
+    if (changes.get(0).getUserVersion() != sinceVersion + 1) {
+      var currentVersion = changes.get(changes.size() - 1).getUserVersion();
+      return List.of(TodoItemChangeDto.resync(currentVersion));
+    }
+    return toDtos(changes);
+  }
+
+  public Runnable subscribe(Long userId, Runnable subscriber) {
+    return todoItemChangeNotifier.subscribe(userId, subscriber);
+  }
+
+  @Scheduled(
+      initialDelayString = "${todoapp.changes.cleanup-interval:PT1H}",
+      fixedDelayString = "${todoapp.changes.cleanup-interval:PT1H}")
+  @Transactional
+  public void purgeExpiredChanges() {
+    var purged =
+        todoItemChangeRepository.deleteCreatedBefore(
+            LocalDateTime.now().minus(changeFeedProperties.retention()));
+    if (purged > 0) {
+      log.atInfo().setMessage("Purged expired todoItem changes").addKeyValue("count", purged).log();
+    }
+  }
+
+  private List<TodoItemChangeDto> toDtos(List<TodoItemChange> changes) {
+    var addedIds =
+        changes.stream()
+            .filter(change -> change.getChangeType() == ADDED)
+            .map(TodoItemChange::getTodoItemId)
+            .toList();
+    var addedItems =
+        todoItemRepository.findDtosByIdIn(addedIds).stream()
+            .collect(toMap(TodoItemDto::getId, identity()));
+    return changes.stream()
+        .map(
+            change -> {
+              var todoItem = addedItems.get(change.getTodoItemId());
+              return new TodoItemChangeDto(
+                  change.getUserVersion(),
+                  change.getChangeType(),
+                  change.getTodoItemId(),
+                  todoItem);
+            })
+        .toList();
+  }
+}
@@ -0,0 +1,38 @@
+package com.sothrose.todoapp.service;
+
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserDto;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Pageable;
+
+public class NoOpUserCache implements UserCache {
+
+  @Override
+  public UserDto getUser(Long userId, Supplier<UserDto> loader) {
+    return loader.get();
+  }
+
+  @Override
+  public Map<Long, UserDto> getUsers(
+      Collection<Long> userIds, Function<Collection<Long>, Map<Long, UserDto>> loader) {
+    return loader.apply(userIds);
+  }
+
+  @Override
+  public List<TodoItemDto> getTodoItems(
+      Long userId, boolean done, Pageable pageable, Supplier<List<TodoItemDto>> loader) {
+    return loader.get();
+  }
+
+  @Override
+  public long getVersion(Long userId, Supplier<Long> loader) {
+    return loader.get();
+  }
+
+  @Override
+  public void invalidate(Long userId) {}
+}
@@ -0,0 +1,116 @@
+package com.sothrose.todoapp.service;
+
+import static com.sothrose.todoapp.service.TodoItemChangePublisher.CHANNEL;
+
+import com.sothrose.todoapp.config.ChangeFeedProperties;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class PostgresChangeListener implements SmartLifecycle {
+  private static final int POLL_MILLIS = 1_000;
+
+  private final DataSourceProperties dataSourceProperties;
+  private final TodoItemChangeNotifier todoItemChangeNotifier;
+  private final ChangeFeedProperties changeFeedProperties;
+  private volatile Thread listenerThread;
+
+  @Override
+  public void start() {
+    var thread =
+        Thread.ofPlatform().daemon().name("todo-item-change-listener").unstarted(this::listen);
+    listenerThread = thread;
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    var thread = listenerThread;
+    listenerThread = null;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return listenerThread != null;
+  }
+
+  private void listen() {
+    while (isRunning()) {
+      try (var connection = connect()) {
+        if (!connection.isWrapperFor(PGConnection.class)) {
+          log.info("Not a PostgreSQL database, todo item changes are only delivered locally");
+          return;
+        }
+        try {
+          receive(connection);
+        } finally {
+          todoItemChangeNotifier.setListening(false);
+          unlisten(connection);
+        }
+      } catch (SQLException e) {
+        if (!isRunning()) {
+          return;
+        }
+        log.warn(
+            "Listening for todo item changes failed, reconnecting in [{}]",
+            changeFeedProperties.listenerReconnectDelay(),
+            e);
+        try {
+          Thread.sleep(changeFeedProperties.listenerReconnectDelay());
+        } catch (InterruptedException interrupted) {
+          return;
+        }
+      }
+    }
+  }
+
+  private void receive(Connection connection) throws SQLException {
+    try (var statement = connection.createStatement()) {
+      statement.execute("LISTEN " + CHANNEL);
+    }
+    todoItemChangeNotifier.setListening(true);
+    // Anything published while the connection was down was missed; let every subscriber
+    // re-read its cursor.
+    todoItemChangeNotifier.notifyAllSubscribers();
+
+    var pgConnection = connection.unwrap(PGConnection.class);
+    while (isRunning()) {
+      var notifications = pgConnection.getNotifications(POLL_MILLIS);
+      if (notifications == null) {
+        continue;
+      }
+      for (var notification : notifications) {
+        todoItemChangeNotifier.notifyChanged(Long.valueOf(notification.getParameter()));
+      }
+    }
+  }
+
+  // The listening connection is held for the lifetime of the application, so it is opened
+  // directly against the primary instead of being borrowed from, and pinned in, the pool.
+  private Connection connect() throws SQLException {
+    return DriverManager.getConnection(
+        dataSourceProperties.determineUrl(),
+        dataSourceProperties.determineUsername(),
+        dataSourceProperties.determinePassword());
+  }
+
+  private static void unlisten(Connection connection) {
+    try (var statement = connection.createStatement()) {
+      statement.execute("UNLISTEN *");
+    } catch (SQLException e) {
+      log.debug("Could not unlisten before closing the change listener connection", e);
+    }
+  }
+}
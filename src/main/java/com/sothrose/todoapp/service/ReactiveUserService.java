@@ -0,0 +1,366 @@
+package com.sothrose.todoapp.service;
+
+import static com.sothrose.todoapp.model.TodoItemChangeType.ADDED;
+import static com.sothrose.todoapp.model.TodoItemChangeType.DELETED;
+import static com.sothrose.todoapp.model.TodoItemChangeType.RESYNC;
+import static com.sothrose.todoapp.model.TodoItemChangeType.USER_DELETED;
+import static com.sothrose.todoapp.model.User.TODO_ITEMS_BATCH_SIZE;
+
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import com.sothrose.todoapp.model.CursorPage;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.TodoItemRow;
+import com.sothrose.todoapp.model.UserBatch;
+import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserRow;
+import com.sothrose.todoapp.model.UserSummary;
+import com.sothrose.todoapp.repository.ReactiveTodoItemChangeRepository;
+import com.sothrose.todoapp.repository.ReactiveTodoItemRepository;
+import com.sothrose.todoapp.repository.ReactiveUserRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Profile("reactive")
+@RequiredArgsConstructor
+@Service
+public class ReactiveUserService {
+  private static final Logger readLog =
+      LoggerFactory.getLogger(ReactiveUserService.class.getName() + ".reads");
+
+  private final ReactiveUserRepository userRepository;
+  private final ReactiveTodoItemRepository todoItemRepository;
+  private final ReactiveTodoItemChangeRepository todoItemChangeRepository;
+  private final TransactionalOperator transactionalOperator;
+
+  public Mono<Void> saveUser(UserDto userDto) {
+    return userRepository
+        .insert(
+            userDto.getUsername(),
+            userDto.getFirstName(),
+            userDto.getLastName(),
+            userDto.getEmail(),
+            userDto.getBirthday())
+        .doOnNext(
+            inserted ->
+                log.atInfo()
+                    .setMessage("User saved")
+                    .addKeyValue("username", userDto.getUsername())
+                    .log())
+        .then();
+  }
+
+  public Mono<UserDto> getUser(Long userId) {
+    readLog.atInfo().setMessage("Getting user").addKeyValue("userId", userId).log();
+    return userRepository
+        .findById(userId)
+        .switchIfEmpty(Mono.error(() -> new UserNotFoundException(userId)))
+        .flatMap(
+            user ->
+                todoItemRepository
+                    .findByUserId(userId)
+                    .map(TodoItemRow::toDto)
+                    .collectList()
+                    .map(user::toDto));
+  }
+
+  public Mono<Long> getUserVersion(Long userId) {
+    return userRepository
+        .findVersionById(userId)
+        .switchIfEmpty(Mono.error(() -> new UserNotFoundException(userId)));
+  }
+
+  public Mono<Void> deleteUser(Long userId) {
+    return userRepository
+        .incrementVersion(userId)
+        .flatMap(
+            version ->
+                todoItemChangeRepository
+                    .insert(userId, version, USER_DELETED, null)
+                    .then(userRepository.markDeleted(userId)))
+        .as(transactionalOperator::transactional)
+        .doOnSuccess(
+            ignored -> log.atInfo().setMessage("User deleted").addKeyValue("userId", userId).log());
+  }
+
+  public Mono<CursorPage<UserDto>> getUsers(Long after, int limit) {
+    readLog
+        .atInfo()
+        .setMessage("Getting users")
+        .addKeyValue("after", after)
+        .addKeyValue("limit", limit)
+        .log();
+    return usersAfter(after, limit);
+  }
+
+  public Mono<UserBatch> getUsersByIds(Collection<Long> userIds) {
+    readLog.atInfo().setMessage("Getting users by id").addKeyValue("count", userIds.size()).log();
+    var ids = new LinkedHashSet<>(userIds);
+    return userRepository
+        .findByIdIn(ids)
+        .collectList()
+        .flatMap(
+            users ->
+                withTodoItems(users)
+                    .collectList()
+                    .map(
+                        userDtos -> {
+                          var usersById = new HashMap<Long, UserDto>();
+                          for (int i = 0; i < users.size(); i++) {
+                            usersById.put(users.get(i).id(), userDtos.get(i));
+                          }
+                          return UserBatch.of(ids, usersById);
+                        }));
+  }
+
+  public Flux<UserSummary> getUserSummaries(Collection<Long> userIds) {
+    readLog
+        .atInfo()
+        .setMessage("Getting user summaries")
+        .addKeyValue("count", userIds.size())
+        .log();
+    return userRepository.findSummariesByIdIn(new LinkedHashSet<>(userIds));
+  }
+
+  public Flux<UserDto> streamAllUsers() {
+    readLog.atInfo().log("Streaming all users");
+    // One keyset chunk per query, so a slow subscriber never holds a connection open.
+    return usersAfter(0L, TODO_ITEMS_BATCH_SIZE)
+        .expand(
+            page ->
+                page.hasNext()
+                    ? usersAfter(page.nextCursor(), TODO_ITEMS_BATCH_SIZE)
+                    : Mono.empty())
+        .concatMapIterable(CursorPage::items);
+  }
+
+  public Mono<Void> addTodoItemToUser(TodoItemDto todoItemDto) {
+    var userId = todoItemDto.getUserId();
+    var done = todoItemDto.isDone();
+    return incrementVersion(userId, done ? 0 : 1, done ? 1 : 0)
+        .flatMap(
+            version ->
+                todoItemRepository
+                    .insert(
+                        todoItemDto.getTodo(),
+                        todoItemDto.getInfo(),
+                        todoItemDto.getCompletionTime(),
+                        done,
+                        userId)
+                    .flatMap(
+                        todoItemId ->
+                            todoItemChangeRepository.insert(userId, version, ADDED, todoItemId)))
+        .as(transactionalOperator::transactional)
+        .doOnSuccess(
+            ignored ->
+                log.atInfo().setMessage("TodoItem added").addKeyValue("userId", userId).log());
+  }
+
+  public Mono<Void> deleteTodoItemFromUser(Long userId, Long todoItemId) {
+    return todoItemRepository
+        .deleteByIdAndUserId(todoItemId, userId)
+        .flatMap(
+            done ->
+                incrementVersion(userId, done ? 0 : -1, done ? -1 : 0)
+                    .flatMap(
+                        version ->
+                            todoItemChangeRepository.insert(userId, version, DELETED, todoItemId))
+                    .thenReturn(true))
+        .switchIfEmpty(requireUser(userId).thenReturn(false))
+        .as(transactionalOperator::transactional)
+        .doOnNext(
+            deleted ->
+                log.atInfo()
+                    .setMessage("TodoItem deleted")
+                    .addKeyValue("userId", userId)
+                    .addKeyValue("todoItemId", todoItemId)
+                    .addKeyValue("deleted", deleted)
+                    .log())
+        .then();
+  }
+
+  public Mono<Integer> setTodoItemsDone(Long userId, Collection<Long> todoItemIds, boolean done) {
+    return todoItemRepository
+        .updateDone(userId, todoItemIds, done)
+        .flatMap(updated -> afterStatusUpdate(userId, updated, done))
+        .as(transactionalOperator::transactional)
+        .doOnNext(
+            updated ->
+                log.atInfo()
+                    .setMessage("TodoItems status updated")
+                    .addKeyValue("userId", userId)
+                    .addKeyValue("requested", todoItemIds.size())
+                    .addKeyValue("updated", updated)
+                    .addKeyValue("done", done)
+                    .log());
+  }
+
+  public Mono<Integer> completeOverdueTodoItems(Long userId) {
+    return Mono.defer(() -> todoItemRepository.completeOverdue(userId, LocalDateTime.now()))
+        .flatMap(updated -> afterStatusUpdate(userId, updated, true))
+        .as(transactionalOperator::transactional)
+        .doOnNext(
+            updated ->
+                log.atInfo()
+                    .setMessage("Overdue todoItems completed")
+                    .addKeyValue("userId", userId)
+                    .addKeyValue("updated", updated)
+                    .log());
+  }
+
+  public Flux<TodoItemDto> getAllDoneTodoItemsForUser(Long userId, Pageable pageable) {
+    return getTodoItemsForUser(userId, true, pageable);
+  }
+
+  public Flux<TodoItemDto> getAllNotDoneTodoItemsForUser(Long userId, Pageable pageable) {
+    return getTodoItemsForUser(userId, false, pageable);
+  }
+
+  public Flux<TodoItemDto> getOverdueTodoItemsForUser(Long userId, Pageable pageable) {
+    readLog
+        .atInfo()
+        .setMessage("Getting overdue todoItems")
+        .addKeyValue("userId", userId)
+        .addKeyValue("page", pageable.getPageNumber())
+        .addKeyValue("size", pageable.getPageSize())
+        .log();
+    return requireUser(userId)
+        .thenMany(
+            Flux.defer(
+                () ->
+                    todoItemRepository.findOverdueByUserId(
+                        userId,
+                        LocalDateTime.now(),
+                        pageable.getPageSize(),
+                        pageable.getOffset())))
+        .map(TodoItemRow::toDto);
+  }
+
+  public Flux<TodoItemDto> getArchivedTodoItemsForUser(Long userId, Pageable pageable) {
+    readLog
+        .atInfo()
+        .setMessage("Getting archived todoItems")
+        .addKeyValue("userId", userId)
+        .addKeyValue("page", pageable.getPageNumber())
+        .addKeyValue("size", pageable.getPageSize())
+        .log();
+    return requireUser(userId)
+        .thenMany(
+            todoItemRepository.findArchivedByUserId(
+                userId, pageable.getPageSize(), pageable.getOffset()))
+        .map(TodoItemRow::toDto);
+  }
+
+  public Flux<TodoItemDto> streamDueTodoItems(Duration within) {
+    readLog.atInfo().setMessage("Streaming due todoItems").addKeyValue("within", within).log();
+    return Flux.defer(
+            () -> {
+              var now = LocalDateTime.now();
+              return todoItemRepository.findDueBetween(now, now.plus(within));
+            })
+        .map(TodoItemRow::toDto);
+  }
+
+  public Flux<TodoItemDto> searchTodoItems(Long userId, String text, Pageable pageable) {
+    readLog
+        .atInfo()
+        .setMessage("Searching todoItems")
+        .addKeyValue("userId", userId)
+        .addKeyValue("page", pageable.getPageNumber())
+        .addKeyValue("size", pageable.getPageSize())
+        .log();
+    var query = SearchTerms.toPrefixQuery(text);
+    return requireUser(userId)
+        .thenMany(
+            query.isEmpty()
+                ? Flux.<TodoItemRow>empty()
+                : todoItemRepository.search(
+                    userId, query, pageable.getPageSize(), pageable.getOffset()))
+        .map(TodoItemRow::toDto);
+  }
+
+  private Flux<TodoItemDto> getTodoItemsForUser(Long userId, boolean done, Pageable pageable) {
+    readLog
+        .atInfo()
+        .setMessage("Getting todoItems")
+        .addKeyValue("userId", userId)
+        .addKeyValue("done", done)
+        .addKeyValue("page", pageable.getPageNumber())
+        .addKeyValue("size", pageable.getPageSize())
+        .log();
+    return requireUser(userId)
+        .thenMany(
+            todoItemRepository.findByUserIdAndDone(
+                userId, done, pageable.getPageSize(), pageable.getOffset()))
+        .map(TodoItemRow::toDto);
+  }
+
+  private Mono<CursorPage<UserDto>> usersAfter(Long after, int limit) {
+    return userRepository
+        .findPageAfter(after, limit)
+        .collectList()
+        .flatMap(
+            users -> {
+              var nextCursor = users.size() == limit ? users.get(users.size() - 1).id() : null;
+              return withTodoItems(users)
+                  .collectList()
+                  .map(userDtos -> new CursorPage<>(userDtos, nextCursor));
+            });
+  }
+
+  private Flux<UserDto> withTodoItems(List<UserRow> users) {
+    if (users.isEmpty()) {
+      return Flux.empty();
+    }
+
+    var userIds = users.stream().map(UserRow::id).toList();
+    return todoItemRepository
+        .findByUserIdIn(userIds)
+        .collectMultimap(TodoItemRow::userId, TodoItemRow::toDto)
+        .flatMapMany(
+            todoItemsByUser ->
+                Flux.fromIterable(users)
+                    .map(
+                        user ->
+                            user.toDto(
+                                new ArrayList<>(
+                                    todoItemsByUser.getOrDefault(user.id(), List.of())))));
+  }
+
+  private Mono<Integer> afterStatusUpdate(Long userId, int updated, boolean done) {
+    return updated > 0
+        ? incrementVersion(userId, done ? -updated : updated, done ? updated : -updated)
+            .flatMap(version -> todoItemChangeRepository.insert(userId, version, RESYNC, null))
+            .thenReturn(updated)
+        : requireUser(userId).thenReturn(updated);
+  }
+
+  private Mono<Long> incrementVersion(Long userId, int openDelta, int doneDelta) {
+    return userRepository
+        .incrementVersion(userId, openDelta, doneDelta)
+        .switchIfEmpty(Mono.error(() -> new UserNotFoundException(userId)));
+  }
+
+  private Mono<Void> requireUser(Long userId) {
+    return userRepository
+        .existsById(userId)
+        .flatMap(
+            exists ->
+                exists ? Mono.<Void>empty() : Mono.error(() -> new UserNotFoundException(userId)));
+  }
+}
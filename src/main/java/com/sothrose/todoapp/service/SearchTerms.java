@@ -0,0 +1,23 @@
+package com.sothrose.todoapp.service;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+final class SearchTerms {
+  static final int MAX_TERMS = 8;
+
+  private SearchTerms() {}
+
+  // Turns free text into a tsquery that prefix-matches every word, e.g. "buy gro" becomes
+  // "buy:* & gro:*". Only letters and digits survive, so user input never reaches the tsquery
+  // parser as operators; an empty result means there is nothing to search for.
+  static String toPrefixQuery(String text) {
+    return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+        .filter(term -> !term.isEmpty())
+        .limit(MAX_TERMS)
+        .map(term -> term + ":*")
+        .collect(joining(" & "));
+  }
+}
@@ -0,0 +1,56 @@
+package com.sothrose.todoapp.service;
+
+import com.sothrose.todoapp.config.ArchiveProperties;
+import com.sothrose.todoapp.repository.TodoItemArchiveRepository;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "todoapp.archive.enabled", havingValue = "true")
+@Service
+public class TodoItemArchiver {
+
+  private final TodoItemArchiveRepository todoItemArchiveRepository;
+  private final TodoItemChangePublisher todoItemChangePublisher;
+  private final UserCache userCache;
+  private final TransactionTemplate transactionTemplate;
+  private final ArchiveProperties archiveProperties;
+
+  // Every batch commits on its own, so item and user rows stay locked only briefly and the hot
+  // partitions are shrunk steadily rather than in one long transaction. Archived items still
+  // count as done in the user's counters.
+  @Scheduled(
+      initialDelayString = "${todoapp.archive.interval:PT15M}",
+      fixedDelayString = "${todoapp.archive.interval:PT15M}")
+  public void archiveDoneTodoItems() {
+    var cutoff = LocalDateTime.now().minus(archiveProperties.age());
+    var archived = 0;
+    int batch;
+    do {
+      batch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+      archived += batch;
+    } while (batch == archiveProperties.batchSize());
+
+    if (archived > 0) {
+      log.atInfo()
+          .setMessage("Archived done todoItems")
+          .addKeyValue("count", archived)
+          .addKeyValue("cutoff", cutoff)
+          .log();
+    }
+  }
+
+  private int archiveBatch(LocalDateTime cutoff) {
+    var archivedByUser =
+        todoItemArchiveRepository.archiveDoneBefore(cutoff, archiveProperties.batchSize());
+    todoItemChangePublisher.notifyChanged(archivedByUser.keySet());
+    archivedByUser.keySet().forEach(userCache::invalidate);
+    return archivedByUser.values().stream().mapToInt(Integer::intValue).sum();
+  }
+}
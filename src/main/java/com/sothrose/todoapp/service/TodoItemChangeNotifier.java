@@ -0,0 +1,65 @@
+package com.sothrose.todoapp.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TodoItemChangeNotifier implements DisposableBean {
+  private final ConcurrentMap<Long, Set<Runnable>> subscribers = new ConcurrentHashMap<>();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private volatile boolean listening;
+
+  public Runnable subscribe(Long userId, Runnable subscriber) {
+    subscribers.compute(
+        userId,
+        (id, userSubscribers) -> {
+          var updated =
+              userSubscribers == null ? ConcurrentHashMap.<Runnable>newKeySet() : userSubscribers;
+          updated.add(subscriber);
+          return updated;
+        });
+    return () -> unsubscribe(userId, subscriber);
+  }
+
+  // Subscribers query the database, so they run on their own virtual threads rather than on the
+  // committing request thread or the LISTEN thread.
+  public void notifyChanged(Long userId) {
+    var userSubscribers = subscribers.get(userId);
+    if (userSubscribers != null) {
+      userSubscribers.forEach(executor::execute);
+    }
+  }
+
+  // Set while a database LISTEN delivers every change, including this instance's own, so
+  // publishers can leave waking subscribers to it.
+  public boolean isListening() {
+    return listening;
+  }
+
+  public void setListening(boolean listening) {
+    this.listening = listening;
+  }
+
+  public void notifyAllSubscribers() {
+    subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(executor::execute));
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  private void unsubscribe(Long userId, Runnable subscriber) {
+    subscribers.computeIfPresent(
+        userId,
+        (id, userSubscribers) -> {
+          userSubscribers.remove(subscriber);
+          return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+  }
+}
@@ -0,0 +1,86 @@
+package com.sothrose.todoapp.service;
+
+import com.google.common.base.Suppliers;
+import com.sothrose.todoapp.model.TodoItemChange;
+import com.sothrose.todoapp.model.TodoItemChangeType;
+import com.sothrose.todoapp.repository.TodoItemChangeRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class TodoItemChangePublisher {
+  public static final String CHANNEL = "todo_item_changes";
+
+  private final TodoItemChangeRepository todoItemChangeRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TodoItemChangeNotifier todoItemChangeNotifier;
+  private final Supplier<Boolean> postgres;
+
+  public TodoItemChangePublisher(
+      TodoItemChangeRepository todoItemChangeRepository,
+      JdbcTemplate jdbcTemplate,
+      TodoItemChangeNotifier todoItemChangeNotifier) {
+    this.todoItemChangeRepository = todoItemChangeRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.todoItemChangeNotifier = todoItemChangeNotifier;
+    postgres =
+        Suppliers.memoize(
+            () ->
+                jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>)
+                        connection -> connection.isWrapperFor(PGConnection.class)));
+  }
+
+  public void publish(Long userId, long userVersion, TodoItemChangeType type, Long todoItemId) {
+    todoItemChangeRepository.save(new TodoItemChange(userId, userVersion, type, todoItemId));
+    notifyChanged(userId);
+  }
+
+  public void notifyChanged(Long userId) {
+    notifyChanged(List.of(userId));
+  }
+
+  // The NOTIFY joins the surrounding transaction, so other instances only hear about committed
+  // changes, and one statement covers every user of a batch. While this instance is listening it
+  // hears its own NOTIFY as well, so its subscribers are only woken directly, after commit, when
+  // it is not.
+  public void notifyChanged(Collection<Long> userIds) {
+    if (userIds.isEmpty()) {
+      return;
+    }
+    if (postgres.get()) {
+      jdbcTemplate.query(
+          "SELECT pg_notify(?, u::text) FROM unnest(?::bigint[]) u",
+          rs -> {},
+          CHANNEL,
+          userIds.toArray(Long[]::new));
+    }
+
+    var notified = List.copyOf(userIds);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      wakeLocalSubscribers(notified);
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            wakeLocalSubscribers(notified);
+          }
+        });
+  }
+
+  private void wakeLocalSubscribers(List<Long> userIds) {
+    if (!todoItemChangeNotifier.isListening()) {
+      userIds.forEach(todoItemChangeNotifier::notifyChanged);
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.sothrose.todoapp.service;
+
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserDto;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.data.domain.Pageable;
+
+public interface UserCache {
+
+  // A loader returns null, or leaves an id out of its map, for users that do not exist; those are
+  // never cached.
+  UserDto getUser(Long userId, Supplier<UserDto> loader);
+
+  Map<Long, UserDto> getUsers(
+      Collection<Long> userIds, Function<Collection<Long>, Map<Long, UserDto>> loader);
+
+  List<TodoItemDto> getTodoItems(
+      Long userId, boolean done, Pageable pageable, Supplier<List<TodoItemDto>> loader);
+
+  long getVersion(Long userId, Supplier<Long> loader);
+
+  void invalidate(Long userId);
+}
@@ -0,0 +1,96 @@
+package com.sothrose.todoapp.service;
+
+import com.sothrose.todoapp.config.PurgeProperties;
+import com.sothrose.todoapp.repository.UserPurgeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@ConditionalOnProperty(name = "todoapp.purge.enabled", havingValue = "true")
+@Service
+public class UserPurger {
+
+  private final UserPurgeRepository userPurgeRepository;
+  private final PurgeProperties purgeProperties;
+  private final Counter purgedTodoItems;
+  private final Counter purgedUsers;
+  private final AtomicLong pendingUsers = new AtomicLong();
+
+  public UserPurger(
+      UserPurgeRepository userPurgeRepository,
+      PurgeProperties purgeProperties,
+      MeterRegistry meterRegistry) {
+    this.userPurgeRepository = userPurgeRepository;
+    this.purgeProperties = purgeProperties;
+    purgedTodoItems =
+        Counter.builder("todoapp.purge.todo-items")
+            .description("TodoItems of deleted users removed by the purger")
+            .register(meterRegistry);
+    purgedUsers =
+        Counter.builder("todoapp.purge.users")
+            .description("Deleted users whose rows have been removed")
+            .register(meterRegistry);
+    Gauge.builder("todoapp.purge.pending-users", pendingUsers, AtomicLong::get)
+        .description("Deleted users still waiting to be purged")
+        .register(meterRegistry);
+  }
+
+  // Every batch is its own autocommitted statement and the user row goes last, so all progress
+  // lives in the database and a purge cut short by a restart carries on from where it stopped.
+  @Scheduled(
+      initialDelayString = "${todoapp.purge.interval:PT1M}",
+      fixedDelayString = "${todoapp.purge.interval:PT1M}")
+  public void purgeDeletedUsers() {
+    pendingUsers.set(userPurgeRepository.countDeletedUsers());
+    try {
+      for (var userId : userPurgeRepository.findDeletedUserIds(purgeProperties.maxUsersPerRun())) {
+        purgeUser(userId);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.info("User purge interrupted, remaining users are picked up by the next run");
+    }
+  }
+
+  private void purgeUser(Long userId) throws InterruptedException {
+    var todoItems = deleteInBatches(userId, userPurgeRepository::deleteTodoItems);
+    var archivedTodoItems = deleteInBatches(userId, userPurgeRepository::deleteArchivedTodoItems);
+    userPurgeRepository.deleteUser(userId);
+    purgedUsers.increment();
+    pendingUsers.decrementAndGet();
+    log.atInfo()
+        .setMessage("Deleted user purged")
+        .addKeyValue("userId", userId)
+        .addKeyValue("todoItems", todoItems)
+        .addKeyValue("archivedTodoItems", archivedTodoItems)
+        .log();
+  }
+
+  // The pause between full batches spreads a large purge out so it does not crowd out the
+  // foreground writes.
+  private long deleteInBatches(Long userId, BatchDelete batchDelete) throws InterruptedException {
+    var batchSize = purgeProperties.batchSize();
+    var deleted = 0L;
+    int batch;
+    do {
+      batch = batchDelete.delete(userId, batchSize);
+      deleted += batch;
+      purgedTodoItems.increment(batch);
+      if (batch == batchSize) {
+        Thread.sleep(purgeProperties.batchDelay());
+      }
+    } while (batch == batchSize);
+    return deleted;
+  }
+
+  @FunctionalInterface
+  private interface BatchDelete {
+    int delete(Long userId, int batchSize);
+  }
+}
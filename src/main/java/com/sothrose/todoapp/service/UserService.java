@@ -1,104 +1,370 @@
 package com.sothrose.todoapp.service;
 
-import static java.lang.String.format;
+import static com.sothrose.todoapp.model.TodoItemChangeType.ADDED;
+import static com.sothrose.todoapp.model.TodoItemChangeType.DELETED;
+import static com.sothrose.todoapp.model.TodoItemChangeType.RESYNC;
+import static com.sothrose.todoapp.model.TodoItemChangeType.USER_DELETED;
+import static com.sothrose.todoapp.model.User.TODO_ITEMS_BATCH_SIZE;
+import static java.util.stream.Collectors.groupingBy;
 
 import com.sothrose.todoapp.exception.UserNotFoundException;
-import com.sothrose.todoapp.model.TodoItem;
+import com.sothrose.todoapp.model.CursorPage;
 import com.sothrose.todoapp.model.TodoItemDto;
-import com.sothrose.todoapp.model.User;
+import com.sothrose.todoapp.model.UserBatch;
 import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserSummary;
+import com.sothrose.todoapp.model.UserTodoItemView;
+import com.sothrose.todoapp.model.UserView;
+import com.sothrose.todoapp.repository.TodoItemArchiveRepository;
+import com.sothrose.todoapp.repository.TodoItemRepository;
+import com.sothrose.todoapp.repository.TodoItemSearchRepository;
 import com.sothrose.todoapp.repository.UserRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class UserService {
+  private static final Logger readLog =
+      LoggerFactory.getLogger(UserService.class.getName() + ".reads");
 
   private final UserRepository userRepository;
+  private final TodoItemRepository todoItemRepository;
+  private final TodoItemSearchRepository todoItemSearchRepository;
+  private final TodoItemArchiveRepository todoItemArchiveRepository;
+  private final UserCache userCache;
+  private final TodoItemChangePublisher todoItemChangePublisher;
+  private final TransactionTemplate transactionTemplate;
 
   public void saveUser(UserDto userDto) {
-    log.info("Saving new user with username: [{}]", userDto.getUsername());
     var savedUser = userRepository.save(userDto.toUser());
-    log.info(
-        "User with username: [{}] saved successfully user id: [{}]",
-        userDto.getUsername(),
-        savedUser.getId());
+    userCache.invalidate(savedUser.getId());
+    log.atInfo()
+        .setMessage("User saved")
+        .addKeyValue("userId", savedUser.getId())
+        .addKeyValue("username", userDto.getUsername())
+        .log();
   }
 
+  // The cached reads look up the cache outside any transaction, so a hit costs no connection.
+  // Only a miss runs its loader, and it does so in a read-write transaction: a read-only one may
+  // be routed to a lagging replica, and whatever it returned would be served from the cache until
+  // the next write to the user. The loaders only read projections, so there is nothing to flush.
   public UserDto getUser(Long userId) {
-    log.info("Getting user with id: [{}]", userId);
-    return userRepository
-        .findById(userId)
-        .map(User::toDto)
-        .orElseThrow(
-            () -> new UserNotFoundException(format("User with id: [%s] not found", userId)));
+    readLog.atInfo().setMessage("Getting user").addKeyValue("userId", userId).log();
+    var user =
+        userCache.getUser(
+            userId,
+            () ->
+                onPrimary(
+                    () -> {
+                      var rows = userRepository.findViewWithTodoItemsById(userId);
+                      return rows.isEmpty() ? null : UserTodoItemView.toUserDto(rows);
+                    }));
+    if (user == null) {
+      throw new UserNotFoundException(userId);
+    }
+    return user;
+  }
+
+  public UserBatch getUsersByIds(Collection<Long> userIds) {
+    readLog.atInfo().setMessage("Getting users by id").addKeyValue("count", userIds.size()).log();
+    var ids = new LinkedHashSet<>(userIds);
+    var users = userCache.getUsers(ids, missing -> onPrimary(() -> loadUsers(missing)));
+    return UserBatch.of(ids, users);
   }
 
+  // Counts are kept on the user row by every item write, so a summary costs one indexed row read
+  // per user instead of loading the items.
+  @Transactional(readOnly = true)
+  public List<UserSummary> getUserSummaries(Collection<Long> userIds) {
+    readLog
+        .atInfo()
+        .setMessage("Getting user summaries")
+        .addKeyValue("count", userIds.size())
+        .log();
+    return userRepository.findSummariesByIdIn(new LinkedHashSet<>(userIds));
+  }
+
+  public long getUserVersion(Long userId) {
+    return userCache.getVersion(
+        userId,
+        () ->
+            onPrimary(
+                () ->
+                    userRepository
+                        .findVersionById(userId)
+                        .orElseThrow(() -> new UserNotFoundException(userId))));
+  }
+
+  // Only marks the user deleted, which hides it from every read at commit; UserPurger removes
+  // the items and the row later in small batches instead of in this transaction.
+  @Transactional
   public void deleteUser(Long userId) {
-    log.info("Deleting user with id: [{}]", userId);
-    userRepository.deleteById(userId);
+    if (userRepository.incrementVersion(userId) > 0) {
+      todoItemChangePublisher.publish(userId, currentVersion(userId), USER_DELETED, null);
+      userRepository.markDeleted(userId, LocalDateTime.now());
+    }
+    userCache.invalidate(userId);
+    log.atInfo().setMessage("User deleted").addKeyValue("userId", userId).log();
+  }
+
+  @Transactional(readOnly = true)
+  public CursorPage<UserDto> getUsers(Long after, int limit) {
+    readLog
+        .atInfo()
+        .setMessage("Getting users")
+        .addKeyValue("after", after)
+        .addKeyValue("limit", limit)
+        .log();
+    return usersAfter(after, limit);
   }
 
-  public List<UserDto> getAllUsers() {
-    log.info("Getting all users");
-    return userRepository.findAll().stream().map(User::toDto).toList();
+  // Reads one keyset chunk per short read-only transaction and hands it to the consumer only
+  // after that transaction has ended, so a slow client never holds a connection open.
+  public void streamAllUsers(Consumer<UserDto> consumer) {
+    readLog.atInfo().log("Streaming all users");
+    var readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+    readOnly.setReadOnly(true);
+    Long after = 0L;
+    do {
+      var cursor = after;
+      var page = readOnly.execute(status -> usersAfter(cursor, TODO_ITEMS_BATCH_SIZE));
+      page.items().forEach(consumer);
+      after = page.nextCursor();
+    } while (after != null);
   }
 
+  @Transactional
   public void addTodoItemToUser(TodoItemDto todoItemDto) {
-    log.info("Adding new todoItem to user with id: [{}]", todoItemDto.getUserId());
-    var userOpt = userRepository.findById(todoItemDto.getUserId());
-    if (userOpt.isEmpty()) {
-      throw new UserNotFoundException(
-          format("User with id: [%s] not found", todoItemDto.getUserId()));
+    var done = todoItemDto.isDone();
+    var version = incrementVersion(todoItemDto.getUserId(), done ? 0 : 1, done ? 1 : 0);
+    var todoItem = todoItemRepository.save(todoItemDto.toTodoItem());
+    todoItemChangePublisher.publish(todoItemDto.getUserId(), version, ADDED, todoItem.getId());
+    userCache.invalidate(todoItemDto.getUserId());
+    log.atInfo()
+        .setMessage("TodoItem added")
+        .addKeyValue("userId", todoItemDto.getUserId())
+        .log();
+  }
+
+  @Transactional
+  public void deleteTodoItemFromUser(Long userId, Long todoItemId) {
+    var done = false;
+    var deleted = todoItemRepository.deleteByIdAndUserIdAndDone(todoItemId, userId, done);
+    if (deleted == 0) {
+      done = true;
+      deleted = todoItemRepository.deleteByIdAndUserIdAndDone(todoItemId, userId, done);
+    }
+    if (deleted > 0) {
+      var version = incrementVersion(userId, done ? 0 : -1, done ? -1 : 0);
+      todoItemChangePublisher.publish(userId, version, DELETED, todoItemId);
+      userCache.invalidate(userId);
+    } else if (!userRepository.existsById(userId)) {
+      throw new UserNotFoundException(userId);
     }
 
-    var user = userOpt.get();
-    user.getTodoItems().add(todoItemDto.toTodoItem());
-    userRepository.save(user);
-    log.info("TodoItem successfully added to user with id: [{}]", todoItemDto.getUserId());
+    log.atInfo()
+        .setMessage("TodoItem deleted")
+        .addKeyValue("userId", userId)
+        .addKeyValue("todoItemId", todoItemId)
+        .addKeyValue("deleted", deleted > 0)
+        .log();
   }
 
-  public void deleteTodoItemFromUser(Long userId, Long todoItemId) {
-    log.info("Deleting todoItem with id: [{}] from user with id: [{}] started", todoItemId, userId);
-    var userOpt = userRepository.findById(userId);
-    if (userOpt.isEmpty()) {
-      throw new UserNotFoundException(format("User with id: [%s] not found", userId));
+  @Transactional
+  public int setTodoItemsDone(Long userId, Collection<Long> todoItemIds, boolean done) {
+    var updated = todoItemRepository.updateDone(userId, todoItemIds, done);
+    afterStatusUpdate(userId, updated, done);
+    log.atInfo()
+        .setMessage("TodoItems status updated")
+        .addKeyValue("userId", userId)
+        .addKeyValue("requested", todoItemIds.size())
+        .addKeyValue("updated", updated)
+        .addKeyValue("done", done)
+        .log();
+    return updated;
+  }
+
+  @Transactional
+  public int completeOverdueTodoItems(Long userId) {
+    var updated = todoItemRepository.completeOverdue(userId, LocalDateTime.now());
+    afterStatusUpdate(userId, updated, true);
+    log.atInfo()
+        .setMessage("Overdue todoItems completed")
+        .addKeyValue("userId", userId)
+        .addKeyValue("updated", updated)
+        .log();
+    return updated;
+  }
+
+  public List<TodoItemDto> getAllDoneTodoItemsForUser(Long userId, Pageable pageable) {
+    return getTodoItemsForUser(userId, true, pageable);
+  }
+
+  public List<TodoItemDto> getAllNotDoneTodoItemsForUser(Long userId, Pageable pageable) {
+    return getTodoItemsForUser(userId, false, pageable);
+  }
+
+  @Transactional(readOnly = true)
+  public List<TodoItemDto> getOverdueTodoItemsForUser(Long userId, Pageable pageable) {
+    readLog
+        .atInfo()
+        .setMessage("Getting overdue todoItems")
+        .addKeyValue("userId", userId)
+        .addKeyValue("page", pageable.getPageNumber())
+        .addKeyValue("size", pageable.getPageSize())
+        .log();
+    if (!userRepository.existsById(userId)) {
+      throw new UserNotFoundException(userId);
     }
 
-    var user = userOpt.get();
-    user.getTodoItems().removeIf(todoItem -> todoItem.getId().equals(todoItemId));
-    userRepository.save(user);
-    log.info(
-        "Deleting todoItem with id: [{}] from user with id: [{}] succeeded", todoItemId, userId);
+    return todoItemRepository.findOverdueByUserId(userId, LocalDateTime.now(), pageable);
   }
 
-  public List<TodoItemDto> getAllDoneTodoItemsForUser(Long userId) {
-    log.info("Getting all done todoItems for a user with id: [{}]", userId);
-    var userOpt = userRepository.findById(userId);
-    if (userOpt.isEmpty()) {
-      throw new UserNotFoundException(format("User with id: [%s] not found", userId));
+  // Rows arrive through a server-side cursor in fetch-size chunks and are handed on one at a
+  // time, so a scan across all users runs in constant memory.
+  @Transactional(readOnly = true)
+  public void streamDueTodoItems(Duration within, Consumer<TodoItemDto> consumer) {
+    var now = LocalDateTime.now();
+    readLog.atInfo().setMessage("Streaming due todoItems").addKeyValue("within", within).log();
+    try (var todoItems = todoItemRepository.streamDueBetween(now, now.plus(within))) {
+      todoItems.forEach(consumer);
     }
+  }
 
-    return userOpt.get().getTodoItems().stream()
-        .filter(TodoItem::isDone)
-        .map(TodoItem::toDto)
-        .toList();
+  @Transactional(readOnly = true)
+  public List<TodoItemDto> searchTodoItems(Long userId, String text, Pageable pageable) {
+    readLog
+        .atInfo()
+        .setMessage("Searching todoItems")
+        .addKeyValue("userId", userId)
+        .addKeyValue("page", pageable.getPageNumber())
+        .addKeyValue("size", pageable.getPageSize())
+        .log();
+    if (!userRepository.existsById(userId)) {
+      throw new UserNotFoundException(userId);
+    }
+
+    var query = SearchTerms.toPrefixQuery(text);
+    return query.isEmpty() ? List.of() : todoItemSearchRepository.search(userId, query, pageable);
+  }
+
+  // Archived items live in a separate cold table that only this read touches.
+  @Transactional(readOnly = true)
+  public List<TodoItemDto> getArchivedTodoItemsForUser(Long userId, Pageable pageable) {
+    readLog
+        .atInfo()
+        .setMessage("Getting archived todoItems")
+        .addKeyValue("userId", userId)
+        .addKeyValue("page", pageable.getPageNumber())
+        .addKeyValue("size", pageable.getPageSize())
+        .log();
+    if (!userRepository.existsById(userId)) {
+      throw new UserNotFoundException(userId);
+    }
+
+    return todoItemArchiveRepository.findByUserId(userId, pageable);
+  }
+
+  // A bulk update is recorded as a single RESYNC change rather than one change per item, which
+  // keeps the feed's one-change-per-version contract; subscribers reload the list.
+  private void afterStatusUpdate(Long userId, int updated, boolean done) {
+    if (updated > 0) {
+      var version = incrementVersion(userId, done ? -updated : updated, done ? updated : -updated);
+      todoItemChangePublisher.publish(userId, version, RESYNC, null);
+      userCache.invalidate(userId);
+    } else if (!userRepository.existsById(userId)) {
+      throw new UserNotFoundException(userId);
+    }
+  }
+
+  // The UPDATE doubles as the existence check and holds the user's row lock until commit, so
+  // concurrent writes to one user get consecutive versions.
+  private long incrementVersion(Long userId, int openDelta, int doneDelta) {
+    if (userRepository.incrementVersion(userId, openDelta, doneDelta) == 0) {
+      throw new UserNotFoundException(userId);
+    }
+    return currentVersion(userId);
+  }
+
+  private long currentVersion(Long userId) {
+    return userRepository
+        .findVersionById(userId)
+        .orElseThrow(() -> new UserNotFoundException(userId));
+  }
+
+  private List<TodoItemDto> getTodoItemsForUser(Long userId, boolean done, Pageable pageable) {
+    readLog
+        .atInfo()
+        .setMessage("Getting todoItems")
+        .addKeyValue("userId", userId)
+        .addKeyValue("done", done)
+        .addKeyValue("page", pageable.getPageNumber())
+        .addKeyValue("size", pageable.getPageSize())
+        .log();
+    return userCache.getTodoItems(
+        userId,
+        done,
+        pageable,
+        () ->
+            onPrimary(
+                () -> {
+                  if (!userRepository.existsById(userId)) {
+                    throw new UserNotFoundException(userId);
+                  }
+
+                  return todoItemRepository.findByUserIdAndDone(userId, done, pageable);
+                }));
+  }
+
+  private CursorPage<UserDto> usersAfter(Long after, int limit) {
+    var users = userRepository.findViewsAfter(after, Limit.of(limit));
+    var nextCursor = users.size() == limit ? users.get(users.size() - 1).id() : null;
+    return new CursorPage<>(withTodoItems(users), nextCursor);
+  }
+
+  private <T> T onPrimary(Supplier<T> loader) {
+    return transactionTemplate.execute(status -> loader.get());
+  }
+
+  private Map<Long, UserDto> loadUsers(Collection<Long> userIds) {
+    var users = userRepository.findViewsByIdIn(userIds);
+    var userDtos = withTodoItems(users);
+    var usersById = new HashMap<Long, UserDto>();
+    for (int i = 0; i < users.size(); i++) {
+      usersById.put(users.get(i).id(), userDtos.get(i));
+    }
+    return usersById;
   }
 
-  public List<TodoItemDto> getAllNotDoneTodoItemsForUser(Long userId) {
-    log.info("Getting all not done todoItems for a user with id: [{}]", userId);
-    var userOpt = userRepository.findById(userId);
-    if (userOpt.isEmpty()) {
-      throw new UserNotFoundException(format("User with id: [%s] not found", userId));
+  private List<UserDto> withTodoItems(List<UserView> users) {
+    if (users.isEmpty()) {
+      return List.of();
     }
 
-    return userOpt.get().getTodoItems().stream()
-        .filter(todoItem -> !todoItem.isDone())
-        .map(TodoItem::toDto)
+    var todoItemsByUser =
+        todoItemRepository.findDtosByUserIdIn(users.stream().map(UserView::id).toList()).stream()
+            .collect(groupingBy(TodoItemDto::getUserId));
+    return users.stream()
+        .map(user -> user.toDto(todoItemsByUser.getOrDefault(user.id(), List.of())))
         .toList();
   }
 }
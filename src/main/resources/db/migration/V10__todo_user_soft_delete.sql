@@ -0,0 +1 @@
+ALTER TABLE TODO_USER ADD COLUMN deleted_at TIMESTAMP;
@@ -0,0 +1,7 @@
+ALTER SEQUENCE todo_user_seq
+    INCREMENT BY 50
+    CACHE 1;
+
+ALTER SEQUENCE todo_item_seq
+    INCREMENT BY 50
+    CACHE 1;
@@ -0,0 +1,2 @@
+CREATE INDEX todo_item_user_id_is_done_completion_time_idx
+    ON TODO_ITEM (user_id, is_done, completion_time);
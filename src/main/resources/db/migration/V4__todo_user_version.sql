@@ -0,0 +1 @@
+ALTER TABLE TODO_USER ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
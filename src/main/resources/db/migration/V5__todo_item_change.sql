@@ -0,0 +1,18 @@
+CREATE SEQUENCE todo_item_change_seq
+    START WITH 1
+    INCREMENT BY 50
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+CREATE TABLE TODO_ITEM_CHANGE (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    user_version BIGINT NOT NULL,
+    change_type VARCHAR(32) NOT NULL,
+    todo_item_id BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX todo_item_change_user_id_user_version_idx ON TODO_ITEM_CHANGE (user_id, user_version);
+CREATE INDEX todo_item_change_created_at_idx ON TODO_ITEM_CHANGE (created_at);
@@ -0,0 +1,9 @@
+UPDATE TODO_ITEM SET is_done = FALSE WHERE is_done IS NULL;
+ALTER TABLE TODO_ITEM ALTER COLUMN is_done SET NOT NULL;
+
+ALTER TABLE TODO_USER ADD COLUMN open_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE TODO_USER ADD COLUMN done_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE TODO_USER u SET
+    open_count = (SELECT COUNT(*) FROM TODO_ITEM t WHERE t.user_id = u.id AND t.is_done = FALSE),
+    done_count = (SELECT COUNT(*) FROM TODO_ITEM t WHERE t.user_id = u.id AND t.is_done = TRUE);
@@ -0,0 +1,117 @@
+package com.sothrose.todoapp.benchmark;
+
+import com.sothrose.todoapp.TodoappApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Tag("benchmark")
+@Testcontainers
+class VirtualThreadLoadBenchmark {
+  private static final int WARMUP_REQUESTS = 1_000;
+  private static final int MEASURED_REQUESTS = 10_000;
+  private static final int CONCURRENCY = 400;
+  private static final int PLATFORM_THREADS = 50;
+
+  @Container
+  static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("testdb")
+          .withUsername("testuser")
+          .withPassword("testpass")
+          .withInitScript("schema.sql");
+
+  @Test
+  void comparePlatformAndVirtualThreadRequestExecution() throws Exception {
+    var platform = runLoad(false);
+    var virtual = runLoad(true);
+
+    System.out.printf(
+        "%d requests, %d concurrent clients, %d Tomcat platform threads%n",
+        MEASURED_REQUESTS, CONCURRENCY, PLATFORM_THREADS);
+    System.out.printf("platform threads: %s%n", platform);
+    System.out.printf("virtual threads:  %s%n", virtual);
+  }
+
+  private LoadResult runLoad(boolean virtualThreads) throws Exception {
+    var application =
+        new SpringApplicationBuilder(TodoappApplication.class)
+            .properties(
+                "server.port=0",
+                "server.tomcat.threads.max=" + PLATFORM_THREADS,
+                "spring.datasource.url=" + postgresContainer.getJdbcUrl(),
+                "spring.datasource.username=" + postgresContainer.getUsername(),
+                "spring.datasource.password=" + postgresContainer.getPassword(),
+                "spring.flyway.baseline-on-migrate=true",
+                "todoapp.cache.enabled=false");
+    if (virtualThreads) {
+      application.profiles("virtual-threads");
+    }
+
+    try (var context = application.run();
+        var client = HttpClient.newHttpClient();
+        var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+      var uri = URI.create("http://localhost:" + port + "/v1/todoapp/users/todoItems/notDone/1");
+      fire(client, executor, uri, WARMUP_REQUESTS);
+      return fire(client, executor, uri, MEASURED_REQUESTS);
+    }
+  }
+
+  private LoadResult fire(HttpClient client, ExecutorService executor, URI uri, int requests)
+      throws Exception {
+    var permits = new Semaphore(CONCURRENCY);
+    var latencies = new long[requests];
+    var futures = new ArrayList<Future<?>>(requests);
+    var request = HttpRequest.newBuilder(uri).GET().build();
+
+    var start = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      var index = i;
+      permits.acquire();
+      futures.add(
+          executor.submit(
+              () -> {
+                try {
+                  var requestStart = System.nanoTime();
+                  client.send(request, BodyHandlers.discarding());
+                  latencies[index] = System.nanoTime() - requestStart;
+                } finally {
+                  permits.release();
+                }
+                return null;
+              }));
+    }
+    for (var future : futures) {
+      future.get();
+    }
+    var elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+    Arrays.sort(latencies);
+    return new LoadResult(
+        requests / elapsedSeconds,
+        latencies[requests / 2] / 1e6,
+        latencies[(int) Math.ceil(requests * 0.99) - 1] / 1e6);
+  }
+
+  private record LoadResult(double requestsPerSecond, double p50Millis, double p99Millis) {
+    @Override
+    public String toString() {
+      return String.format(
+          "%,.0f req/s, p50 %.1f ms, p99 %.1f ms", requestsPerSecond, p50Millis, p99Millis);
+    }
+  }
+}
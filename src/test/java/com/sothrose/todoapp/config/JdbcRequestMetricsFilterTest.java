@@ -0,0 +1,111 @@
+package com.sothrose.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+class JdbcRequestMetricsFilterTest {
+  private SimpleMeterRegistry meterRegistry;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    var jdbcExecutionCounter = new JdbcExecutionCounter();
+    meterRegistry = new SimpleMeterRegistry();
+    mockMvc =
+        MockMvcBuilders.standaloneSetup(new StatementsController(jdbcExecutionCounter))
+            .addFilters(new JdbcRequestMetricsFilter(jdbcExecutionCounter, meterRegistry))
+            .build();
+  }
+
+  @Test
+  void shouldRecordStatementsOfASynchronousRequest() throws Exception {
+    // when
+    mockMvc.perform(get("/sync")).andExpect(status().isOk());
+
+    // then
+    assertThat(statements("/sync").count()).isEqualTo(1);
+    assertThat(statements("/sync").totalAmount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRecordStatementsOfAStreamingResponseOnceItsAsyncDispatchEnds() throws Exception {
+    // given
+    var asyncResult =
+        mockMvc.perform(get("/stream")).andExpect(request().asyncStarted()).andReturn();
+    asyncResult.getAsyncResult();
+
+    // when
+    mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk());
+
+    // then
+    assertThat(statements("/stream").count()).isEqualTo(1);
+    assertThat(statements("/stream").totalAmount()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldNotRecordDeferredResults() throws Exception {
+    // given
+    var asyncResult =
+        mockMvc.perform(get("/deferred")).andExpect(request().asyncStarted()).andReturn();
+
+    // when
+    mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk());
+
+    // then
+    assertThat(meterRegistry.find("todoapp.request.jdbc.statements").summary()).isNull();
+  }
+
+  private DistributionSummary statements(String uri) {
+    return meterRegistry.get("todoapp.request.jdbc.statements").tag("uri", uri).summary();
+  }
+
+  @RestController
+  static class StatementsController {
+    private final JdbcExecutionCounter jdbcExecutionCounter;
+
+    StatementsController(JdbcExecutionCounter jdbcExecutionCounter) {
+      this.jdbcExecutionCounter = jdbcExecutionCounter;
+    }
+
+    @GetMapping("/sync")
+    String sync() {
+      execute(2);
+      return "ok";
+    }
+
+    @GetMapping("/stream")
+    StreamingResponseBody stream() {
+      execute(1);
+      return outputStream -> execute(3);
+    }
+
+    @GetMapping("/deferred")
+    DeferredResult<String> deferred() {
+      execute(1);
+      var result = new DeferredResult<String>();
+      result.setResult("ok");
+      return result;
+    }
+
+    private void execute(int statements) {
+      for (int i = 0; i < statements; i++) {
+        jdbcExecutionCounter.afterQuery(null, List.of());
+      }
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.sothrose.todoapp.config;
+
+import static ch.qos.logback.core.spi.FilterReply.DENY;
+import static ch.qos.logback.core.spi.FilterReply.NEUTRAL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RateLimitingLogFilterTest {
+  private static final long SECOND = 1_700_000_000_000L;
+
+  private RateLimitingLogFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    filter = new RateLimitingLogFilter();
+    filter.setMaxEventsPerSecond(2);
+  }
+
+  @Test
+  void shouldDropEventsAboveTheLimitWithinOneSecond() {
+    // when
+    var replies = decide(3, "requests", Level.INFO, SECOND + 100);
+
+    // then
+    assertThat(replies).containsExactly(NEUTRAL, NEUTRAL, DENY);
+  }
+
+  @Test
+  void shouldResetTheLimitInTheNextSecond() {
+    // given
+    decide(3, "requests", Level.INFO, SECOND + 900);
+
+    // when
+    var replies = decide(3, "requests", Level.INFO, SECOND + 1_000);
+
+    // then
+    assertThat(replies).containsExactly(NEUTRAL, NEUTRAL, DENY);
+  }
+
+  @Test
+  void shouldLimitEachLoggerSeparatelyAndNeverDropWarnings() {
+    // given
+    decide(2, "requests", Level.INFO, SECOND);
+
+    // when
+    var otherLogger = decide(1, "changes", Level.INFO, SECOND);
+    var warnings = decide(3, "requests", Level.WARN, SECOND);
+
+    // then
+    assertThat(otherLogger).containsExactly(NEUTRAL);
+    assertThat(warnings).containsOnly(NEUTRAL);
+  }
+
+  private List<FilterReply> decide(int count, String loggerName, Level level, long timeStamp) {
+    return IntStream.range(0, count)
+        .mapToObj(
+            i -> {
+              var event = new LoggingEvent();
+              event.setLoggerName(loggerName);
+              event.setLevel(level);
+              event.setTimeStamp(timeStamp);
+              return filter.decide(event);
+            })
+        .toList();
+  }
+}
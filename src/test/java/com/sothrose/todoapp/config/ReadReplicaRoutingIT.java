@@ -0,0 +1,120 @@
+package com.sothrose.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.service.UserService;
+import java.time.LocalDate;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class ReadReplicaRoutingIT {
+
+  @Container
+  static PostgreSQLContainer<?> primaryContainer =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("testdb")
+          .withUsername("testuser")
+          .withPassword("testpass")
+          .withInitScript("schema.sql");
+
+  // Not a streaming replica: a second database with the same schema and seed data, so a read
+  // can only see rows changed here if it was routed to this container.
+  @Container
+  static PostgreSQLContainer<?> replicaContainer =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("testdb")
+          .withUsername("testuser")
+          .withPassword("testpass")
+          .withInitScript("schema.sql");
+
+  @DynamicPropertySource
+  static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", primaryContainer::getJdbcUrl);
+    registry.add("spring.datasource.username", primaryContainer::getUsername);
+    registry.add("spring.datasource.password", primaryContainer::getPassword);
+    registry.add("spring.flyway.baselineOnMigrate", () -> "true");
+    registry.add("todoapp.datasource.replica.jdbc-url", replicaContainer::getJdbcUrl);
+    registry.add("todoapp.datasource.replica.username", replicaContainer::getUsername);
+    registry.add("todoapp.datasource.replica.password", replicaContainer::getPassword);
+    registry.add("todoapp.cache.enabled", () -> "false");
+  }
+
+  @Autowired private UserService userService;
+
+  @BeforeAll
+  static void migrateReplica() {
+    Flyway.configure()
+        .dataSource(
+            replicaContainer.getJdbcUrl(),
+            replicaContainer.getUsername(),
+            replicaContainer.getPassword())
+        .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+        .baselineOnMigrate(true)
+        .load()
+        .migrate();
+  }
+
+  @Test
+  void shouldServeReadOnlyTransactionsFromReplica() {
+    // given
+    jdbcTemplate(replicaContainer)
+        .update("UPDATE TODO_USER SET first_name = 'Replica' WHERE id = 1");
+
+    // when
+    var users = userService.getUsers(0L, 1).items();
+
+    // then
+    assertThat(users).extracting(UserDto::getFirstName).containsExactly("Replica");
+  }
+
+  @Test
+  void shouldFillTheUserCacheFromPrimary() {
+    // given
+    jdbcTemplate(replicaContainer).update("UPDATE TODO_USER SET first_name = 'Stale' WHERE id = 2");
+
+    // when
+    var user = userService.getUser(2L);
+
+    // then
+    assertThat(user.getFirstName()).isEqualTo("Jane");
+  }
+
+  @Test
+  void shouldSendWritesToPrimary() {
+    // given
+    var userDto =
+        new UserDto("writer", "Write", "Only", "writer@example.com", LocalDate.of(1999, 11, 1));
+
+    // when
+    userService.saveUser(userDto);
+
+    // then
+    assertThat(countUsersNamed(primaryContainer, "writer")).isEqualTo(1);
+    assertThat(countUsersNamed(replicaContainer, "writer")).isZero();
+  }
+
+  private static Integer countUsersNamed(PostgreSQLContainer<?> container, String username) {
+    return jdbcTemplate(container)
+        .queryForObject(
+            "SELECT COUNT(*) FROM TODO_USER WHERE username = ?", Integer.class, username);
+  }
+
+  private static JdbcTemplate jdbcTemplate(PostgreSQLContainer<?> container) {
+    return new JdbcTemplate(
+        new DriverManagerDataSource(
+            container.getJdbcUrl(), container.getUsername(), container.getPassword()));
+  }
+}
@@ -0,0 +1,61 @@
+package com.sothrose.todoapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import com.sothrose.todoapp.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+class UserServiceMetricsAspectTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private UserService target;
+  private UserService userService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    target = mock(UserService.class);
+    var proxyFactory = new AspectJProxyFactory(target);
+    proxyFactory.addAspect(new UserServiceMetricsAspect(meterRegistry));
+    userService = proxyFactory.getProxy();
+  }
+
+  @Test
+  void shouldTimeSuccessfulCallsWithSuccessOutcome() {
+    // when
+    userService.deleteUser(1L);
+
+    // then
+    assertThat(timedCalls("deleteUser", "success")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldTagFailedCallsWithExceptionName() {
+    // given
+    when(target.getUser(1L)).thenThrow(new UserNotFoundException(1L));
+
+    // when
+    assertThatThrownBy(() -> userService.getUser(1L)).isInstanceOf(UserNotFoundException.class);
+
+    // then
+    assertThat(timedCalls("getUser", "UserNotFoundException")).isEqualTo(1);
+    assertThat(meterRegistry.find("todoapp.user-service").tag("outcome", "success").timer())
+        .isNull();
+  }
+
+  private long timedCalls(String method, String outcome) {
+    return meterRegistry
+        .get("todoapp.user-service")
+        .tag("method", method)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+}
@@ -0,0 +1,79 @@
+package com.sothrose.todoapp.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.sothrose.todoapp.model.BulkImportReport;
+import com.sothrose.todoapp.model.BulkImportReport.RecordError;
+import com.sothrose.todoapp.service.BulkImportService;
+import java.io.InputStream;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkImportControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private BulkImportService bulkImportService;
+
+  @Test
+  void shouldImportUsersFromNdjson() throws Exception {
+    // given
+    var body =
+        """
+        {"username":"johndo","firstName":"john","lastName":"do","email":"john@do.pl","birthday":"1999-11-01"}
+        {"username":"janedo","firstName":"jane","lastName":"do","email":"not-an-email","birthday":"1999-11-01"}
+        """;
+    when(bulkImportService.importUsers(any(InputStream.class)))
+        .thenReturn(
+            new BulkImportReport(
+                2, 1, List.of(new RecordError(1, "email must be a well-formed email address"))));
+
+    // when
+    mockMvc
+        .perform(post("/v1/todoapp/users/bulk").contentType(APPLICATION_NDJSON).content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(2))
+        .andExpect(jsonPath("$.imported").value(1))
+        .andExpect(jsonPath("$.errors[0].index").value(1));
+
+    // then
+    verify(bulkImportService).importUsers(any(InputStream.class));
+  }
+
+  @Test
+  void shouldImportTodoItemsFromJsonArray() throws Exception {
+    // given
+    var body =
+        """
+        [{"userId":1,"todo":"Do something","info":"Sample","completionTime":"2099-12-25T11:11:11"}]
+        """;
+    when(bulkImportService.importTodoItems(any(InputStream.class)))
+        .thenReturn(new BulkImportReport(1, 1, List.of()));
+
+    // when
+    mockMvc
+        .perform(
+            post("/v1/todoapp/users/todoItems/bulk").contentType(APPLICATION_JSON).content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(1))
+        .andExpect(jsonPath("$.errors").isEmpty());
+
+    // then
+    verify(bulkImportService).importTodoItems(any(InputStream.class));
+  }
+}
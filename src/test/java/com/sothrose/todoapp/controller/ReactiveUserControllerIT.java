@@ -0,0 +1,223 @@
+package com.sothrose.todoapp.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.ETAG;
+
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.TodoItemStatusReport;
+import com.sothrose.todoapp.model.TodoItemStatusUpdate;
+import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserSummary;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class ReactiveUserControllerIT {
+
+  @Container
+  static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("testdb")
+          .withUsername("testuser")
+          .withPassword("testpass")
+          .withInitScript("schema.sql");
+
+  @DynamicPropertySource
+  static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+    registry.add("spring.datasource.username", postgresContainer::getUsername);
+    registry.add("spring.datasource.password", postgresContainer::getPassword);
+    registry.add("spring.flyway.baselineOnMigrate", () -> "true");
+    registry.add(
+        "spring.r2dbc.url",
+        () ->
+            "r2dbc:postgresql://"
+                + postgresContainer.getHost()
+                + ":"
+                + postgresContainer.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT)
+                + "/"
+                + postgresContainer.getDatabaseName());
+    registry.add("spring.r2dbc.username", postgresContainer::getUsername);
+    registry.add("spring.r2dbc.password", postgresContainer::getPassword);
+  }
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldSaveGetAndDeleteUser() {
+    var userDto =
+        new UserDto("reactive", "Re", "Active", "re.active@example.com", LocalDate.of(1999, 11, 1));
+
+    webTestClient
+        .post()
+        .uri("/v1/todoapp/users")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(userDto)
+        .exchange()
+        .expectStatus()
+        .isOk();
+    var userId =
+        jdbcTemplate.queryForObject(
+            "SELECT id FROM todo_user WHERE username = ?", Long.class, "reactive");
+
+    webTestClient
+        .get()
+        .uri("/v1/todoapp/users/{userId}", userId)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(UserDto.class)
+        .value(user -> assertThat(user.getEmail()).isEqualTo("re.active@example.com"));
+
+    webTestClient
+        .delete()
+        .uri("/v1/todoapp/users/{userId}", userId)
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    webTestClient
+        .get()
+        .uri("/v1/todoapp/users/{userId}", userId)
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
+  @Test
+  void shouldAnswerUnchangedUserWithNotModifiedUntilItsTodoItemsChange() {
+    var etag =
+        webTestClient
+            .get()
+            .uri("/v1/todoapp/users/{userId}", 4L)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists(ETAG)
+            .expectBody(UserDto.class)
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+    webTestClient
+        .get()
+        .uri("/v1/todoapp/users/{userId}", 4L)
+        .ifNoneMatch(etag)
+        .exchange()
+        .expectStatus()
+        .isNotModified()
+        .expectBody()
+        .isEmpty();
+    webTestClient
+        .get()
+        .uri("/v1/todoapp/users/todoItems/notDone/{userId}", 4L)
+        .accept(MediaType.APPLICATION_JSON)
+        .ifNoneMatch(etag)
+        .exchange()
+        .expectStatus()
+        .isNotModified()
+        .expectBody()
+        .isEmpty();
+
+    addTodoItem(
+        new TodoItemDto(4L, "Water plants", "etag", LocalDateTime.now().plusDays(1), false));
+
+    webTestClient
+        .get()
+        .uri("/v1/todoapp/users/{userId}", 4L)
+        .ifNoneMatch(etag)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .value(ETAG, newEtag -> assertThat(newEtag).isNotEqualTo(etag));
+  }
+
+  @Test
+  void shouldBumpVersionAndCountsOnEveryTodoItemWrite() {
+    var versionBefore = version(5L);
+
+    addTodoItem(new TodoItemDto(5L, "Fix bike", "counts", LocalDateTime.now().plusDays(1), false));
+    var todoItemId =
+        jdbcTemplate.queryForObject(
+            "SELECT id FROM todo_item WHERE user_id = 5 AND info = ?", Long.class, "counts");
+    assertThat(summary(5L)).isEqualTo(new UserSummary(5L, "chris_k", 3, 0));
+
+    webTestClient
+        .patch()
+        .uri("/v1/todoapp/users/{userId}/todoItems/status", 5L)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new TodoItemStatusUpdate(List.of(todoItemId), true))
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(TodoItemStatusReport.class)
+        .isEqualTo(new TodoItemStatusReport(1));
+    assertThat(summary(5L)).isEqualTo(new UserSummary(5L, "chris_k", 2, 1));
+
+    webTestClient
+        .delete()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path("/v1/todoapp/users/todoItems")
+                    .queryParam("userId", 5L)
+                    .queryParam("todoItemId", todoItemId)
+                    .build())
+        .exchange()
+        .expectStatus()
+        .isOk();
+    assertThat(summary(5L)).isEqualTo(new UserSummary(5L, "chris_k", 2, 0));
+
+    assertThat(version(5L)).isEqualTo(versionBefore + 3);
+  }
+
+  private void addTodoItem(TodoItemDto todoItem) {
+    webTestClient
+        .post()
+        .uri("/v1/todoapp/users/todoItems")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(todoItem)
+        .exchange()
+        .expectStatus()
+        .isOk();
+  }
+
+  private UserSummary summary(Long userId) {
+    return webTestClient
+        .get()
+        .uri("/v1/todoapp/users/summaries?ids={ids}", userId)
+        .accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBodyList(UserSummary.class)
+        .hasSize(1)
+        .returnResult()
+        .getResponseBody()
+        .get(0);
+  }
+
+  private long version(Long userId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT version FROM todo_user WHERE id = ?", Long.class, userId);
+  }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.sothrose.todoapp.model.TodoItemDto;
 import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserSummary;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import org.junit.jupiter.api.BeforeEach;
@@ -126,8 +127,18 @@ public class UserControllerIT {
 
     int userCount =
         jdbcTemplate.queryForObject(
-            "SELECT COUNT(*) FROM todo_user WHERE id = ?", Integer.class, userId);
+            "SELECT COUNT(*) FROM todo_user WHERE id = ? AND deleted_at IS NULL",
+            Integer.class,
+            userId);
     assertThat(userCount).isEqualTo(0);
+
+    var lookupStatus =
+        webClient
+            .get()
+            .uri("/v1/todoapp/users/{userId}", userId)
+            .exchangeToMono(lookup -> Mono.just(lookup.statusCode()))
+            .block();
+    assertThat(lookupStatus).isEqualTo(HttpStatus.NOT_FOUND);
   }
 
   @Test
@@ -215,4 +226,50 @@ public class UserControllerIT {
     assertThat(notDoneItems).isNotNull();
     assertThat(notDoneItems).allMatch(todoItem -> !todoItem.isDone());
   }
+
+  @Test
+  void shouldKeepTodoItemCountsInUserSummaries() {
+    var todoItem =
+        new TodoItemDto(3L, "Pack bags", "Sample summary", LocalDateTime.now().plusDays(1), false);
+    webClient
+        .post()
+        .uri("/v1/todoapp/users/todoItems")
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(Mono.just(todoItem), TodoItemDto.class)
+        .retrieve()
+        .toBodilessEntity()
+        .block();
+
+    var summaries =
+        webClient
+            .get()
+            .uri("/v1/todoapp/users/summaries?ids={ids}", "2,3")
+            .accept(MediaType.APPLICATION_JSON)
+            .retrieve()
+            .bodyToFlux(UserSummary.class)
+            .collectList()
+            .block();
+
+    assertThat(summaries)
+        .containsExactly(
+            new UserSummary(2L, "janedoe", 1, 1), new UserSummary(3L, "mike123", 2, 1));
+  }
+
+  @Test
+  void shouldSearchTodoItemsByWordPrefix() {
+    Long userId = 1L;
+
+    var foundItems =
+        webClient
+            .get()
+            .uri("/v1/todoapp/users/{userId}/todoItems/search?q={q}", userId, "milk gro")
+            .accept(MediaType.APPLICATION_JSON)
+            .retrieve()
+            .bodyToFlux(TodoItemDto.class)
+            .collectList()
+            .block();
+
+    assertThat(foundItems).extracting(TodoItemDto::getTodo).containsExactly("Buy groceries");
+    assertThat(foundItems.get(0).getId()).isNotNull();
+  }
 }
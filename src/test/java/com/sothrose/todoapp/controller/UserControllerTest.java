@@ -1,20 +1,32 @@
 package com.sothrose.todoapp.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.openMocks;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import com.sothrose.todoapp.model.CursorPage;
 import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserBatch;
 import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserSummary;
 import com.sothrose.todoapp.service.UserService;
 import java.time.LocalDate;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +36,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -89,6 +102,65 @@ class UserControllerTest {
     verify(userService).getUser(userId);
   }
 
+  @Test
+  void shouldReturnNotFoundProblemWhenUserIsMissing() throws Exception {
+    // given
+    var userId = 1L;
+    when(userService.getUser(userId)).thenThrow(new UserNotFoundException(userId));
+
+    // when
+    mockMvc
+        .perform(get("/v1/todoapp/users/{userId}", userId).accept(APPLICATION_JSON))
+        .andExpect(status().isNotFound())
+        .andExpect(content().contentType(APPLICATION_PROBLEM_JSON))
+        .andExpect(jsonPath("$.status").value(404))
+        .andExpect(jsonPath("$.detail").value("User with id: [1] not found"))
+        .andExpect(jsonPath("$.userId").value(1));
+
+    // then
+    verify(userService).getUser(userId);
+  }
+
+  @Test
+  void shouldReturnNotModifiedWhenEtagMatchesUserVersion() throws Exception {
+    // given
+    var userId = 1L;
+    when(userService.getUserVersion(userId)).thenReturn(3L);
+
+    // when
+    mockMvc
+        .perform(
+            get("/v1/todoapp/users/{userId}", userId)
+                .accept(APPLICATION_JSON)
+                .header(IF_NONE_MATCH, "\"3\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(ETAG, "\"3\""));
+
+    // then
+    verify(userService, never()).getUser(userId);
+  }
+
+  @Test
+  void shouldReturnTodoItemsWithEtagWhenUserVersionChanged() throws Exception {
+    // given
+    var userId = 1L;
+    when(userService.getUserVersion(userId)).thenReturn(4L);
+    when(userService.getAllNotDoneTodoItemsForUser(userId, PageRequest.of(0, 100)))
+        .thenReturn(List.of());
+
+    // when
+    mockMvc
+        .perform(
+            get("/v1/todoapp/users/todoItems/notDone/{userId}", userId)
+                .accept(APPLICATION_JSON)
+                .header(IF_NONE_MATCH, "\"3\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ETAG, "\"4\""));
+
+    // then
+    verify(userService).getAllNotDoneTodoItemsForUser(userId, PageRequest.of(0, 100));
+  }
+
   @Test
   void shouldGetAllUsers() throws Exception {
     // given
@@ -96,17 +168,96 @@ class UserControllerTest {
         List.of(
             new UserDto("johndo", "john", "do", "john.doe@example.com", LocalDate.of(1999, 11, 1)),
             new UserDto("janedo", "jane", "do", "jane.doe@example.com", LocalDate.of(1999, 2, 2)));
-    when(userService.getAllUsers()).thenReturn(users);
+    when(userService.getUsers(0L, 100)).thenReturn(new CursorPage<>(users, null));
 
     // when
     mockMvc
         .perform(get("/v1/todoapp/users").accept(APPLICATION_JSON))
         .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
         .andExpect(jsonPath("$.length()").value(2))
         .andExpect(jsonPath("$[0].email").value("john.doe@example.com"));
 
     // then
-    verify(userService).getAllUsers();
+    verify(userService).getUsers(0L, 100);
+  }
+
+  @Test
+  void shouldReturnNextCursorWhenPageIsFull() throws Exception {
+    // given
+    var users =
+        List.of(
+            new UserDto("johndo", "john", "do", "john.doe@example.com", LocalDate.of(1999, 11, 1)));
+    when(userService.getUsers(5L, 1)).thenReturn(new CursorPage<>(users, 6L));
+
+    // when
+    mockMvc
+        .perform(
+            get("/v1/todoapp/users")
+                .param("after", "5")
+                .param("limit", "1")
+                .accept(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", "6"))
+        .andExpect(
+            header()
+                .string(
+                    "Link", "<http://localhost/v1/todoapp/users?after=6&limit=1>; rel=\"next\""))
+        .andExpect(jsonPath("$.length()").value(1));
+
+    // then
+    verify(userService).getUsers(5L, 1);
+  }
+
+  @Test
+  void shouldRejectLimitAboveMaximum() throws Exception {
+    // when
+    mockMvc
+        .perform(get("/v1/todoapp/users").param("limit", "1001").accept(APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+
+    // then
+    verifyNoInteractions(userService);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldStreamAllUsersAsNdjson() throws Exception {
+    // given
+    doAnswer(
+            invocation -> {
+              Consumer<UserDto> consumer = invocation.getArgument(0);
+              consumer.accept(
+                  new UserDto(
+                      "johndo", "john", "do", "john.doe@example.com", LocalDate.of(1999, 11, 1)));
+              consumer.accept(
+                  new UserDto(
+                      "janedo", "jane", "do", "jane.doe@example.com", LocalDate.of(1999, 2, 2)));
+              return null;
+            })
+        .when(userService)
+        .streamAllUsers(any(Consumer.class));
+
+    // when
+    var asyncResult =
+        mockMvc
+            .perform(get("/v1/todoapp/users/stream").accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // then
+    var lines =
+        mockMvc
+            .perform(asyncDispatch(asyncResult))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString()
+            .lines()
+            .toList();
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(0)).contains("\"username\":\"johndo\"");
+    assertThat(lines.get(1)).contains("\"username\":\"janedo\"");
   }
 
   @Test
@@ -175,7 +326,8 @@ class UserControllerTest {
                 "Sample Todo Item",
                 LocalDateTime.of(2024, 12, 25, 11, 11, 11),
                 false));
-    when(userService.getAllDoneTodoItemsForUser(userId)).thenReturn(doneTodoItems);
+    when(userService.getAllDoneTodoItemsForUser(userId, PageRequest.of(0, 100)))
+        .thenReturn(doneTodoItems);
 
     // when
     mockMvc
@@ -187,7 +339,7 @@ class UserControllerTest {
         .andExpect(jsonPath("$[0].completionTime").value("2024-12-25T11:11:11"));
 
     // then
-    verify(userService).getAllDoneTodoItemsForUser(userId);
+    verify(userService).getAllDoneTodoItemsForUser(userId, PageRequest.of(0, 100));
   }
 
   @Test
@@ -202,7 +354,8 @@ class UserControllerTest {
                 "Sample Todo Item",
                 LocalDateTime.of(2024, 12, 25, 11, 11, 11),
                 false));
-    when(userService.getAllNotDoneTodoItemsForUser(userId)).thenReturn(notDoneTodoItems);
+    when(userService.getAllNotDoneTodoItemsForUser(userId, PageRequest.of(0, 100)))
+        .thenReturn(notDoneTodoItems);
 
     // when
     mockMvc
@@ -215,6 +368,189 @@ class UserControllerTest {
         .andExpect(jsonPath("$[0].completionTime").value("2024-12-25T11:11:11"));
 
     // then
-    verify(userService).getAllNotDoneTodoItemsForUser(userId);
+    verify(userService).getAllNotDoneTodoItemsForUser(userId, PageRequest.of(0, 100));
+  }
+
+  @Test
+  void shouldSearchTodoItemsWithPaging() throws Exception {
+    // given
+    Long userId = 1L;
+    var found =
+        List.of(
+            new TodoItemDto(
+                7L,
+                userId,
+                "Buy groceries",
+                "Milk, bread, eggs",
+                LocalDateTime.of(2024, 12, 25, 11, 11, 11),
+                false));
+    when(userService.getUserVersion(userId)).thenReturn(3L);
+    when(userService.searchTodoItems(userId, "gro", PageRequest.of(1, 10))).thenReturn(found);
+
+    // when
+    mockMvc
+        .perform(
+            get("/v1/todoapp/users/{userId}/todoItems/search", userId)
+                .param("q", "gro")
+                .param("page", "1")
+                .param("size", "10")
+                .accept(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ETAG, "\"3\""))
+        .andExpect(jsonPath("$[0].id").value(7L))
+        .andExpect(jsonPath("$[0].todo").value("Buy groceries"));
+
+    // then
+    verify(userService).searchTodoItems(userId, "gro", PageRequest.of(1, 10));
+  }
+
+  @Test
+  void shouldGetArchivedTodoItemsOnlyWhenAsked() throws Exception {
+    // given
+    Long userId = 1L;
+    var archived =
+        List.of(
+            new TodoItemDto(
+                9L, userId, "File taxes", "Last year", LocalDateTime.of(2023, 4, 30, 12, 0), true));
+    when(userService.getUserVersion(userId)).thenReturn(5L);
+    when(userService.getArchivedTodoItemsForUser(userId, PageRequest.of(0, 100)))
+        .thenReturn(archived);
+
+    // when
+    mockMvc
+        .perform(
+            get("/v1/todoapp/users/{userId}/todoItems/archived", userId).accept(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ETAG, "\"5\""))
+        .andExpect(jsonPath("$[0].id").value(9L))
+        .andExpect(jsonPath("$[0].done").value(true));
+
+    // then
+    verify(userService).getArchivedTodoItemsForUser(userId, PageRequest.of(0, 100));
+    verify(userService, never()).getAllDoneTodoItemsForUser(any(), any());
+  }
+
+  @Test
+  void shouldRejectBlankSearchQuery() throws Exception {
+    // when
+    mockMvc
+        .perform(
+            get("/v1/todoapp/users/{userId}/todoItems/search", 1L)
+                .param("q", " ")
+                .accept(APPLICATION_JSON))
+        .andExpect(status().isBadRequest());
+
+    // then
+    verifyNoInteractions(userService);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldStreamDueTodoItemsAsNdjson() throws Exception {
+    // given
+    doAnswer(
+            invocation -> {
+              Consumer<TodoItemDto> consumer = invocation.getArgument(1);
+              consumer.accept(
+                  new TodoItemDto(
+                      7L, 1L, "Call parents", "info", LocalDateTime.of(2030, 1, 1, 12, 0), false));
+              return null;
+            })
+        .when(userService)
+        .streamDueTodoItems(eq(Duration.ofMinutes(30)), any(Consumer.class));
+
+    // when
+    var asyncResult =
+        mockMvc
+            .perform(
+                get("/v1/todoapp/users/todoItems/due")
+                    .param("withinMinutes", "30")
+                    .accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // then
+    var lines =
+        mockMvc
+            .perform(asyncDispatch(asyncResult))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString()
+            .lines()
+            .toList();
+    assertThat(lines).hasSize(1);
+    assertThat(lines.get(0)).contains("\"todo\":\"Call parents\"");
+  }
+
+  @Test
+  void shouldGetUsersBatchReportingMissingIds() throws Exception {
+    // given
+    var user =
+        new UserDto("johndo", "john", "do", "john.doe@example.com", LocalDate.of(1999, 11, 1));
+    when(userService.getUsersByIds(List.of(1L, 2L)))
+        .thenReturn(new UserBatch(Map.of(1L, user), List.of(2L)));
+
+    // when
+    mockMvc
+        .perform(get("/v1/todoapp/users/batch").param("ids", "1,2").accept(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.users['1'].username").value("johndo"))
+        .andExpect(jsonPath("$.missingIds[0]").value(2));
+
+    // then
+    verify(userService).getUsersByIds(List.of(1L, 2L));
+  }
+
+  @Test
+  void shouldGetTodoItemCountsForManyUsers() throws Exception {
+    // given
+    when(userService.getUserSummaries(List.of(1L, 2L)))
+        .thenReturn(
+            List.of(new UserSummary(1L, "johndo", 3, 5), new UserSummary(2L, "janedo", 0, 1)));
+
+    // when
+    mockMvc
+        .perform(get("/v1/todoapp/users/summaries").param("ids", "1,2").accept(APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].openCount").value(3))
+        .andExpect(jsonPath("$[0].doneCount").value(5))
+        .andExpect(jsonPath("$[1].username").value("janedo"));
+
+    // then
+    verify(userService).getUserSummaries(List.of(1L, 2L));
+  }
+
+  @Test
+  void shouldMarkManyTodoItemsDoneInOneCall() throws Exception {
+    // given
+    Long userId = 1L;
+    when(userService.setTodoItemsDone(userId, List.of(3L, 4L, 5L), true)).thenReturn(2);
+
+    // when
+    mockMvc
+        .perform(
+            patch("/v1/todoapp/users/{userId}/todoItems/status", userId)
+                .contentType(APPLICATION_JSON)
+                .content("{\"ids\": [3, 4, 5], \"done\": true}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updated").value(2));
+
+    // then
+    verify(userService).setTodoItemsDone(userId, List.of(3L, 4L, 5L), true);
+  }
+
+  @Test
+  void shouldRejectStatusUpdateWithoutIds() throws Exception {
+    // when
+    mockMvc
+        .perform(
+            patch("/v1/todoapp/users/{userId}/todoItems/status", 1L)
+                .contentType(APPLICATION_JSON)
+                .content("{\"ids\": [], \"done\": true}"))
+        .andExpect(status().isBadRequest());
+
+    // then
+    verifyNoInteractions(userService);
   }
 }
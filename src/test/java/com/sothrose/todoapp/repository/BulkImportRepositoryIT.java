@@ -0,0 +1,114 @@
+package com.sothrose.todoapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserDto;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class BulkImportRepositoryIT {
+
+  @Container
+  static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("testdb")
+          .withUsername("testuser")
+          .withPassword("testpass")
+          .withInitScript("schema.sql");
+
+  @DynamicPropertySource
+  static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+    registry.add("spring.datasource.username", postgresContainer::getUsername);
+    registry.add("spring.datasource.password", postgresContainer::getPassword);
+    registry.add("spring.flyway.baselineOnMigrate", () -> "true");
+  }
+
+  @Autowired private BulkImportRepository bulkImportRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldCopyRowsWithQuotesCommasNewlinesAndNullsIntact() {
+    // given
+    var completionTime = LocalDateTime.of(2099, 12, 25, 11, 11, 11);
+    var quoted = "Say \"hi\", then leave";
+    var todoItems =
+        List.of(
+            new TodoItemDto(3L, quoted, "line one\nline two", completionTime, true),
+            new TodoItemDto(3L, "No info", null, completionTime, false),
+            new TodoItemDto(3L, "Empty info", "", completionTime, false));
+
+    // when
+    var copied = bulkImportRepository.insertTodoItems(todoItems);
+
+    // then
+    assertThat(copied).isEqualTo(3);
+    var rows =
+        jdbcTemplate.query(
+            "SELECT todo, info, completion_time, is_done FROM todo_item"
+                + " WHERE user_id = 3 AND completion_time = ? ORDER BY id",
+            (rs, rowNum) ->
+                new TodoItemDto(
+                    3L,
+                    rs.getString("todo"),
+                    rs.getString("info"),
+                    rs.getObject("completion_time", LocalDateTime.class),
+                    rs.getBoolean("is_done")),
+            completionTime);
+    assertThat(rows).containsExactlyElementsOf(todoItems);
+  }
+
+  @Test
+  void shouldCopyUsersUnderIdsAllocatedInPooledBlocks() {
+    // given
+    var users =
+        List.of(
+            new UserDto("bulk_a", "Bulk", "A", "bulk.a@example.com", LocalDate.of(1990, 1, 1)),
+            new UserDto("bulk_b", "Bulk", "B", "bulk.b@example.com", LocalDate.of(1990, 1, 2)));
+
+    // when
+    var copied = bulkImportRepository.insertUsers(users);
+
+    // then
+    assertThat(copied).isEqualTo(2);
+    var ids =
+        jdbcTemplate.queryForList(
+            "SELECT id FROM todo_user WHERE username LIKE 'bulk\\_%' ORDER BY id", Long.class);
+    assertThat(ids).hasSize(2);
+    assertThat(ids.get(1)).isEqualTo(ids.get(0) + 1);
+    assertThat(ids.get(0)).isGreaterThan(5L);
+  }
+
+  @Test
+  void shouldSkipDeletedUsersWhenBumpingVersionsAndRecordingChanges() {
+    // given
+    jdbcTemplate.update("UPDATE todo_user SET deleted_at = LOCALTIMESTAMP WHERE id = 1");
+    var todoItems =
+        List.of(
+            new TodoItemDto(1L, "Too late", "a", LocalDateTime.of(2099, 1, 1, 0, 0), false),
+            new TodoItemDto(2L, "In time", "b", LocalDateTime.of(2099, 1, 1, 0, 0), false));
+
+    // when
+    var updated = bulkImportRepository.incrementUserVersions(todoItems);
+    var changes = bulkImportRepository.insertResyncChanges(List.of(1L, 2L));
+
+    // then
+    assertThat(updated).containsExactly(0, 1);
+    assertThat(changes).isEqualTo(1);
+    assertThat(bulkImportRepository.findExistingUserIds(List.of(1L, 2L))).containsExactly(2L);
+  }
+}
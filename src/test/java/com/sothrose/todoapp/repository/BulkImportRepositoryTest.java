@@ -0,0 +1,76 @@
+package com.sothrose.todoapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.User;
+import com.sothrose.todoapp.model.UserDto;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest
+@Import(BulkImportRepository.class)
+class BulkImportRepositoryTest {
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private BulkImportRepository bulkImportRepository;
+
+  @Test
+  public void shouldAllocateIdsThatNeverCollideWithEntityIdsOutsidePostgres() {
+    // given
+    var users =
+        IntStream.range(0, User.ID_ALLOCATION_SIZE + 1)
+            .mapToObj(
+                i -> new UserDto("user" + i, "john", "do", "john@do.pl", LocalDate.of(1985, 4, 12)))
+            .toList();
+
+    // when
+    var inserted = bulkImportRepository.insertUsers(users);
+    entityManager.persistAndFlush(
+        new User("johndo", "john", "do", "john@do.pl", LocalDate.of(1985, 4, 12)));
+
+    // then
+    assertThat(inserted).isEqualTo(users.size());
+    assertThat(jdbcTemplate.queryForList("SELECT id FROM todo_user", Long.class))
+        .hasSize(users.size() + 1)
+        .doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void shouldBumpVersionCountersAndRecordOneResyncChangePerUser() {
+    // given
+    var user = new User("johndo", "john", "do", "john@do.pl", LocalDate.of(1985, 4, 12));
+    entityManager.persistAndFlush(user);
+    var completionTime = LocalDateTime.now().plusDays(1);
+    var todoItems =
+        List.of(
+            new TodoItemDto(user.getId(), "Do something", "info", completionTime, false),
+            new TodoItemDto(user.getId(), "Do more", "info", completionTime, false),
+            new TodoItemDto(user.getId(), "Done already", "info", completionTime, true));
+
+    // when
+    bulkImportRepository.insertTodoItems(todoItems);
+    bulkImportRepository.incrementUserVersions(todoItems);
+    var changes = bulkImportRepository.insertResyncChanges(Set.of(user.getId()));
+
+    // then
+    var counters =
+        jdbcTemplate.queryForMap(
+            "SELECT version, open_count, done_count FROM todo_user WHERE id = ?", user.getId());
+    assertThat(((Number) counters.get("version")).longValue()).isEqualTo(user.getVersion() + 1);
+    assertThat(((Number) counters.get("open_count")).intValue()).isEqualTo(2);
+    assertThat(((Number) counters.get("done_count")).intValue()).isEqualTo(1);
+    assertThat(changes).isEqualTo(1);
+  }
+}
@@ -0,0 +1,70 @@
+package com.sothrose.todoapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sothrose.todoapp.model.TodoItem;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.User;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+@DataJpaTest
+class TodoItemRepositoryTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private TodoItemRepository todoItemRepository;
+
+  private Long johnId;
+  private Long janeId;
+
+  @BeforeEach
+  void setUp() {
+    johnId = persistUser("johndo");
+    janeId = persistUser("janedo");
+    persistTodoItem(johnId, "overdue", NOW.minusDays(1), false);
+    persistTodoItem(johnId, "long overdue", NOW.minusDays(2), false);
+    persistTodoItem(johnId, "done late", NOW.minusDays(1), true);
+    persistTodoItem(johnId, "due soon", NOW.plusMinutes(10), false);
+    persistTodoItem(janeId, "due later", NOW.plusMinutes(50), false);
+    persistTodoItem(janeId, "due tomorrow", NOW.plusDays(1), false);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  public void shouldFindOverdueNotDoneItemsOldestFirst() {
+    // when
+    var overdue = todoItemRepository.findOverdueByUserId(johnId, NOW, PageRequest.of(0, 10));
+
+    // then
+    assertThat(overdue).extracting(TodoItemDto::getTodo).containsExactly("long overdue", "overdue");
+  }
+
+  @Test
+  public void shouldStreamItemsDueWithinWindowAcrossUsers() {
+    // when
+    try (var due = todoItemRepository.streamDueBetween(NOW, NOW.plusHours(1))) {
+
+      // then
+      assertThat(due.map(TodoItemDto::getTodo)).containsExactly("due soon", "due later");
+    }
+  }
+
+  private Long persistUser(String username) {
+    var user = new User(username, "first", "last", username + "@do.pl", LocalDate.of(1985, 4, 12));
+    return entityManager.persist(user).getId();
+  }
+
+  private void persistTodoItem(
+      Long userId, String todo, LocalDateTime completionTime, boolean done) {
+    entityManager.persist(new TodoItem(userId, todo, "info", completionTime, done));
+  }
+}
@@ -48,6 +48,21 @@ class UserRepositoryTest {
     assertThat(allUsers.get(1).getUsername()).isEqualTo("janedo");
   }
 
+  @Test
+  public void shouldFindUserViewWithoutTodoItems() {
+    // given
+    var user = new User("johndo", "john", "do", "john@do.pl", LocalDate.of(1985, 4, 12));
+    entityManager.persistAndFlush(user);
+
+    // when
+    var rows = userRepository.findViewWithTodoItemsById(user.getId());
+
+    // then
+    assertThat(rows).hasSize(1);
+    assertThat(rows.get(0).user().username()).isEqualTo("johndo");
+    assertThat(rows.get(0).todoItem()).isNull();
+  }
+
   @Test
   public void shouldSaveUser() {
     // given
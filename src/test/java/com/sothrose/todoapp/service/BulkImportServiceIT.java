@@ -0,0 +1,139 @@
+package com.sothrose.todoapp.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.sothrose.todoapp.model.BulkImportReport.RecordError;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserSummary;
+import com.sothrose.todoapp.repository.BulkImportRepository;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class BulkImportServiceIT {
+
+  @Container
+  static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("testdb")
+          .withUsername("testuser")
+          .withPassword("testpass")
+          .withInitScript("schema.sql");
+
+  @DynamicPropertySource
+  static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+    registry.add("spring.datasource.username", postgresContainer::getUsername);
+    registry.add("spring.datasource.password", postgresContainer::getPassword);
+    registry.add("spring.flyway.baselineOnMigrate", () -> "true");
+    registry.add("todoapp.bulk-import.batch-size", () -> "2");
+  }
+
+  @Autowired private BulkImportService bulkImportService;
+
+  @Autowired private UserService userService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @SpyBean private BulkImportRepository bulkImportRepository;
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldWriteTodoItemsInBatchesAndRecordOneResyncChangePerBatch() throws Exception {
+    // given
+    var body =
+        """
+        [
+          {"userId":4,"todo":"First","info":"a","completionTime":"2099-12-25T11:11:11"},
+          {"userId":4,"todo":"Second","info":"b","completionTime":"2099-12-25T11:11:11"},
+          {"userId":4,"todo":"Third","info":"c","completionTime":"2099-12-25T11:11:11"},
+          {"userId":4,"todo":"Fourth","info":"d","completionTime":"2099-12-25T11:11:11","done":true},
+          {"userId":4,"todo":"Fifth","info":"e","completionTime":"2099-12-25T11:11:11","done":true}
+        ]
+        """;
+    var versionBefore = userService.getUserVersion(4L);
+    var summaryBefore = userService.getUserSummaries(List.of(4L)).get(0);
+    var resyncsBefore = countResyncChanges(4L);
+
+    // when
+    var report = bulkImportService.importTodoItems(stream(body));
+
+    // then
+    assertThat(report.received()).isEqualTo(5);
+    assertThat(report.imported()).isEqualTo(5);
+    assertThat(report.errors()).isEmpty();
+
+    ArgumentCaptor<List<TodoItemDto>> batches = ArgumentCaptor.forClass(List.class);
+    verify(bulkImportRepository, times(3)).insertTodoItems(batches.capture());
+    assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 2, 1);
+
+    assertThat(userService.getUserVersion(4L)).isEqualTo(versionBefore + 3);
+    assertThat(userService.getUserSummaries(List.of(4L)))
+        .containsExactly(
+            new UserSummary(
+                4L, "anna_b", summaryBefore.openCount() + 3, summaryBefore.doneCount() + 2));
+    assertThat(countResyncChanges(4L)).isEqualTo(resyncsBefore + 3);
+  }
+
+  @Test
+  void shouldReportRejectedRecordsByIndexAndImportTheRest() throws Exception {
+    // given
+    var body =
+        """
+        {"userId":5,"todo":"Valid","info":"a","completionTime":"2099-12-25T11:11:11"}
+        {"userId":999,"todo":"Unknown user","info":"b","completionTime":"2099-12-25T11:11:11"}
+        {"userId":5,"todo":"","info":"c","completionTime":"2099-12-25T11:11:11"}
+        {"userId":5,"todo":"Also valid","info":"d","completionTime":"2099-12-25T11:11:11"}
+        {"userId":5,"todo":
+        """;
+    var itemsBefore = countTodoItems(5L);
+
+    // when
+    var report = bulkImportService.importTodoItems(stream(body));
+
+    // then
+    assertThat(report.received()).isEqualTo(4);
+    assertThat(report.imported()).isEqualTo(2);
+    assertThat(report.errors())
+        .extracting(RecordError::index, error -> error.message().split(":")[0])
+        .containsExactly(
+            tuple(1, "User with id"),
+            tuple(2, "todo must not be empty"),
+            tuple(4, "Malformed JSON"));
+    assertThat(countTodoItems(5L)).isEqualTo(itemsBefore + 2);
+    verify(bulkImportRepository, times(2)).insertTodoItems(anyList());
+  }
+
+  private int countTodoItems(Long userId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM todo_item WHERE user_id = ?", Integer.class, userId);
+  }
+
+  private int countResyncChanges(Long userId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM todo_item_change WHERE user_id = ? AND change_type = 'RESYNC'",
+        Integer.class,
+        userId);
+  }
+
+  private static ByteArrayInputStream stream(String body) {
+    return new ByteArrayInputStream(body.getBytes(UTF_8));
+  }
+}
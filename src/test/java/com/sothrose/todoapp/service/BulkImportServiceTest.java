@@ -0,0 +1,90 @@
+package com.sothrose.todoapp.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sothrose.todoapp.config.BulkImportProperties;
+import com.sothrose.todoapp.model.BulkImportReport.RecordError;
+import com.sothrose.todoapp.repository.BulkImportRepository;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class BulkImportServiceTest {
+
+  private BulkImportRepository bulkImportRepository;
+  private BulkImportService bulkImportService;
+
+  @BeforeEach
+  void setUp() {
+    bulkImportRepository = mock(BulkImportRepository.class);
+    when(bulkImportRepository.insertUsers(anyList()))
+        .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+    bulkImportService =
+        new BulkImportService(
+            new ObjectMapper().findAndRegisterModules(),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            bulkImportRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new BulkImportProperties(2),
+            new NoOpUserCache(),
+            mock(TodoItemChangePublisher.class));
+  }
+
+  @Test
+  void shouldReportMalformedRecordAtItsOwnIndex() throws Exception {
+    // given
+    var body =
+        """
+        {"username":"johndo","firstName":"john","lastName":"do","email":"john@do.pl","birthday":"1999-11-01"}
+        {"username":"janedo","firstName":"jane","lastName":"do","email":"jane@do.pl","birthday":"1999-11-01"}
+        {"username":"jimdo","firstName":
+        """;
+
+    // when
+    var report = bulkImportService.importUsers(new ByteArrayInputStream(body.getBytes(UTF_8)));
+
+    // then
+    assertThat(report.received()).isEqualTo(2);
+    assertThat(report.imported()).isEqualTo(2);
+    assertThat(report.errors()).extracting(RecordError::index).containsExactly(2);
+    verify(bulkImportRepository).insertUsers(anyList());
+  }
+
+  @Test
+  void shouldReportEveryRecordOfAFailedBatchAndKeepImporting() throws Exception {
+    // given
+    when(bulkImportRepository.insertUsers(anyList()))
+        .thenThrow(new DataAccessResourceFailureException("COPY into todo_user failed"))
+        .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+    var body =
+        """
+        {"username":"johndo","firstName":"john","lastName":"do","email":"john@do.pl","birthday":"1999-11-01"}
+        {"username":"janedo","firstName":"jane","lastName":"do","email":"jane@do.pl","birthday":"1999-11-01"}
+        {"username":"jimdo","firstName":"jim","lastName":"do","email":"jim@do.pl","birthday":"1999-11-01"}
+        """;
+
+    // when
+    var report = bulkImportService.importUsers(new ByteArrayInputStream(body.getBytes(UTF_8)));
+
+    // then
+    assertThat(report.received()).isEqualTo(3);
+    assertThat(report.imported()).isEqualTo(1);
+    assertThat(report.errors())
+        .extracting(RecordError::index, RecordError::message)
+        .containsExactly(
+            tuple(0, "Batch write failed: COPY into todo_user failed"),
+            tuple(1, "Batch write failed: COPY into todo_user failed"));
+  }
+}
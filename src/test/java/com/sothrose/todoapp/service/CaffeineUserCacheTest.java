@@ -0,0 +1,226 @@
+package com.sothrose.todoapp.service;
+
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import com.sothrose.todoapp.config.UserCacheProperties;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+class CaffeineUserCacheTest {
+  private static final UserDto USER =
+      new UserDto("johndo", "john", "do", "john.doe@example.com", LocalDate.of(1999, 11, 1));
+
+  private SimpleMeterRegistry meterRegistry;
+  private CaffeineUserCache userCache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    userCache =
+        new CaffeineUserCache(
+            new UserCacheProperties(true, 100, 1_000, Duration.ofMinutes(1)), meterRegistry);
+  }
+
+  @Test
+  void shouldLoadUserOnceUntilInvalidated() {
+    // given
+    var loads = new AtomicInteger();
+
+    // when
+    userCache.getUser(1L, () -> countedLoad(loads, USER));
+    userCache.getUser(1L, () -> countedLoad(loads, USER));
+    userCache.invalidate(1L);
+    userCache.getUser(1L, () -> countedLoad(loads, USER));
+
+    // then
+    assertThat(loads).hasValue(2);
+    assertThat(requests("user", "hit")).isEqualTo(1);
+    assertThat(requests("user", "miss")).isEqualTo(2);
+  }
+
+  @Test
+  void shouldCacheTodoItemPagesSeparatelyAndDropThemWithTheUser() {
+    // given
+    var loads = new AtomicInteger();
+    var todoItems =
+        List.of(new TodoItemDto(1L, "Do something", "info", LocalDateTime.now(), false));
+
+    // when
+    userCache.getTodoItems(1L, false, PageRequest.of(0, 10), () -> countedLoad(loads, todoItems));
+    userCache.getTodoItems(1L, false, PageRequest.of(0, 10), () -> countedLoad(loads, todoItems));
+    userCache.getTodoItems(1L, true, PageRequest.of(0, 10), () -> countedLoad(loads, todoItems));
+    userCache.invalidate(1L);
+    userCache.getTodoItems(1L, false, PageRequest.of(0, 10), () -> countedLoad(loads, todoItems));
+
+    // then
+    assertThat(loads).hasValue(3);
+    assertThat(requests("todoItems", "hit")).isEqualTo(1);
+    assertThat(requests("todoItems", "miss")).isEqualTo(3);
+  }
+
+  @Test
+  void shouldBoundCachedTodoItemPagesByTheNumberOfItems() {
+    // given
+    var todoItems =
+        IntStream.range(0, 100)
+            .mapToObj(i -> new TodoItemDto(1L, "Do " + i, "info", LocalDateTime.now(), false))
+            .toList();
+
+    // when
+    for (int page = 0; page < 30; page++) {
+      userCache.getTodoItems(1L, false, PageRequest.of(page, 100), () -> todoItems);
+    }
+
+    // then
+    await()
+        .untilAsserted(
+            () ->
+                assertThat(meterRegistry.get("todoapp.cache.todo-items").gauge().value())
+                    .isLessThanOrEqualTo(1_000));
+  }
+
+  @Test
+  void shouldCacheVersionUntilInvalidated() {
+    // given
+    var loads = new AtomicInteger();
+
+    // when
+    var first = userCache.getVersion(1L, () -> countedLoad(loads, 3L));
+    var second = userCache.getVersion(1L, () -> countedLoad(loads, 4L));
+    userCache.invalidate(1L);
+    var afterInvalidation = userCache.getVersion(1L, () -> countedLoad(loads, 4L));
+
+    // then
+    assertThat(first).isEqualTo(3L);
+    assertThat(second).isEqualTo(3L);
+    assertThat(afterInvalidation).isEqualTo(4L);
+    assertThat(loads).hasValue(2);
+    assertThat(requests("version", "hit")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotCacheFailedLoads() {
+    // given
+    var loads = new AtomicInteger();
+
+    // when
+    assertThatThrownBy(
+            () ->
+                userCache.getUser(
+                    1L,
+                    () -> {
+                      loads.incrementAndGet();
+                      throw new IllegalStateException("boom");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+    userCache.getUser(1L, () -> countedLoad(loads, USER));
+
+    // then
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void shouldLoadOnlyUncachedUsersInOneCallAndLeaveMissingOnesOut() {
+    // given
+    var requestedIds = new ArrayList<Collection<Long>>();
+    userCache.getUser(1L, () -> USER);
+
+    // when
+    var users =
+        userCache.getUsers(
+            List.of(1L, 2L, 3L),
+            ids -> {
+              requestedIds.add(List.copyOf(ids));
+              return Map.of(2L, USER);
+            });
+
+    // then
+    assertThat(requestedIds).hasSize(1);
+    assertThat(requestedIds.get(0)).containsExactlyInAnyOrder(2L, 3L);
+    assertThat(users).containsOnlyKeys(1L, 2L);
+    assertThat(userCache.getUser(3L, () -> null)).isNull();
+  }
+
+  @Test
+  void shouldNotKeepEntriesForMissingUsersOrFailedLoads() {
+    // when
+    userCache.getUser(1L, () -> null);
+    userCache.getUsers(List.of(2L, 3L), ids -> Map.of());
+    assertThatThrownBy(
+            () ->
+                userCache.getVersion(
+                    4L,
+                    () -> {
+                      throw new IllegalStateException("boom");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    // then
+    assertThat(meterRegistry.get("todoapp.cache.size").gauge().value()).isZero();
+  }
+
+  @Test
+  void shouldShareOneLoadBetweenConcurrentLookups() throws Exception {
+    // given
+    var loads = new AtomicInteger();
+    var loadStarted = new CountDownLatch(1);
+    var releaseLoad = new CountDownLatch(1);
+
+    // when
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var first =
+          executor.submit(
+              () ->
+                  userCache.getUser(
+                      1L,
+                      () -> {
+                        loadStarted.countDown();
+                        awaitUninterruptibly(releaseLoad);
+                        return countedLoad(loads, USER);
+                      }));
+      loadStarted.await();
+      var second =
+          executor.submit(() -> userCache.getUsers(List.of(1L), ids -> Map.of(1L, USER)));
+      var third = executor.submit(() -> userCache.getUser(1L, () -> countedLoad(loads, USER)));
+      releaseLoad.countDown();
+
+      // then
+      assertThat(first.get()).isEqualTo(USER);
+      assertThat(second.get()).containsEntry(1L, USER);
+      assertThat(third.get()).isEqualTo(USER);
+    }
+    assertThat(loads).hasValue(1);
+  }
+
+  private static <T> T countedLoad(AtomicInteger loads, T value) {
+    loads.incrementAndGet();
+    return value;
+  }
+
+  private double requests(String kind, String result) {
+    return meterRegistry
+        .get("todoapp.cache.requests")
+        .tag("kind", kind)
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+}
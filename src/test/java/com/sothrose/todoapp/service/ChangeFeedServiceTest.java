@@ -0,0 +1,117 @@
+package com.sothrose.todoapp.service;
+
+import static com.sothrose.todoapp.model.TodoItemChangeType.ADDED;
+import static com.sothrose.todoapp.model.TodoItemChangeType.DELETED;
+import static com.sothrose.todoapp.model.TodoItemChangeType.RESYNC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sothrose.todoapp.config.ChangeFeedProperties;
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import com.sothrose.todoapp.model.TodoItemChangeDto;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.User;
+import com.sothrose.todoapp.repository.TodoItemChangeRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Repository;
+
+@DataJpaTest(includeFilters = @Filter(Repository.class))
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+@Import({
+  UserService.class,
+  NoOpUserCache.class,
+  TodoItemChangePublisher.class,
+  TodoItemChangeNotifier.class,
+  ChangeFeedService.class
+})
+class ChangeFeedServiceTest {
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private UserService userService;
+
+  @Autowired private ChangeFeedService changeFeedService;
+
+  @Autowired private TodoItemChangeRepository todoItemChangeRepository;
+
+  private Long userId;
+
+  @BeforeEach
+  void setUp() {
+    userId =
+        entityManager
+            .persistAndFlush(
+                new User("johndo", "john", "do", "john.doe@example.com", LocalDate.of(1999, 11, 1)))
+            .getId();
+  }
+
+  @Test
+  public void shouldReturnChangesAfterCursorInVersionOrder() {
+    // given
+    addTodoItem("first");
+    addTodoItem("second");
+    var added = changeFeedService.getChanges(userId, 0);
+    userService.deleteTodoItemFromUser(userId, added.get(0).todoItemId());
+
+    // when
+    var changes = changeFeedService.getChanges(userId, 2);
+
+    // then
+    assertThat(added).extracting(TodoItemChangeDto::version).containsExactly(1L, 2L);
+    assertThat(added).extracting(TodoItemChangeDto::type).containsOnly(ADDED);
+    assertThat(added.get(0).todoItem().getTodo()).isEqualTo("first");
+    assertThat(changes).hasSize(1);
+    assertThat(changes.get(0).version()).isEqualTo(3L);
+    assertThat(changes.get(0).type()).isEqualTo(DELETED);
+  }
+
+  @Test
+  public void shouldAskForResyncWhenChangesAfterCursorWerePurged() {
+    // given
+    addTodoItem("first");
+    addTodoItem("second");
+    addTodoItem("third");
+    todoItemChangeRepository.deleteAll(
+        todoItemChangeRepository.findAll().stream()
+            .filter(change -> change.getUserVersion() < 3)
+            .toList());
+
+    // when
+    var changes = changeFeedService.getChanges(userId, 0);
+
+    // then
+    assertThat(changes).containsExactly(TodoItemChangeDto.resync(3L));
+  }
+
+  @Test
+  public void shouldReturnNoChangesWhenUserIsUpToDate() {
+    // given
+    addTodoItem("first");
+
+    // when
+    var changes = changeFeedService.getChanges(userId, 1);
+
+    // then
+    assertThat(changes).isEmpty();
+  }
+
+  @Test
+  public void shouldThrowWhenUserDoesNotExist() {
+    assertThatThrownBy(() -> changeFeedService.getChanges(userId + 1, 0))
+        .isInstanceOf(UserNotFoundException.class);
+  }
+
+  private void addTodoItem(String todo) {
+    userService.addTodoItemToUser(
+        new TodoItemDto(userId, todo, "info", LocalDateTime.now().plusDays(1), false));
+  }
+}
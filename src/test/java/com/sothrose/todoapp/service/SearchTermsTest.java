@@ -0,0 +1,30 @@
+package com.sothrose.todoapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SearchTermsTest {
+
+  @Test
+  public void shouldPrefixMatchEveryWord() {
+    assertThat(SearchTerms.toPrefixQuery("Buy  gro")).isEqualTo("buy:* & gro:*");
+  }
+
+  @Test
+  public void shouldDropTsQueryOperators() {
+    assertThat(SearchTerms.toPrefixQuery("milk | !eggs & (bread):*"))
+        .isEqualTo("milk:* & eggs:* & bread:*");
+  }
+
+  @Test
+  public void shouldReturnEmptyQueryWhenThereAreNoWords() {
+    assertThat(SearchTerms.toPrefixQuery("!&|")).isEmpty();
+  }
+
+  @Test
+  public void shouldLimitNumberOfTerms() {
+    assertThat(SearchTerms.toPrefixQuery("a b c d e f g h i j").split(" & "))
+        .hasSize(SearchTerms.MAX_TERMS);
+  }
+}
@@ -0,0 +1,81 @@
+package com.sothrose.todoapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.UserSummary;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class TodoItemArchiverIT {
+
+  @Container
+  static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("testdb")
+          .withUsername("testuser")
+          .withPassword("testpass")
+          .withInitScript("schema.sql");
+
+  @DynamicPropertySource
+  static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+    registry.add("spring.datasource.username", postgresContainer::getUsername);
+    registry.add("spring.datasource.password", postgresContainer::getPassword);
+    registry.add("spring.flyway.baselineOnMigrate", () -> "true");
+    registry.add("todoapp.archive.batch-size", () -> "2");
+  }
+
+  @Autowired private TodoItemArchiver todoItemArchiver;
+
+  @Autowired private UserService userService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void shouldSpreadTodoItemsOverHashPartitions() {
+    var partitions =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_inherits WHERE inhparent = 'todo_item'::regclass",
+            Integer.class);
+
+    assertThat(partitions).isEqualTo(16);
+  }
+
+  @Test
+  void shouldMoveOldDoneTodoItemsToArchiveInBatches() {
+    // given
+    var versionBefore = userService.getUserVersion(4L);
+
+    // when
+    todoItemArchiver.archiveDoneTodoItems();
+
+    // then
+    var doneInHotTable =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM todo_item WHERE is_done = TRUE", Integer.class);
+    var archived =
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todo_item_archive", Integer.class);
+    assertThat(doneInHotTable).isZero();
+    assertThat(archived).isEqualTo(5);
+
+    assertThat(userService.getUserVersion(4L)).isGreaterThan(versionBefore);
+    assertThat(userService.getAllDoneTodoItemsForUser(4L, PageRequest.of(0, 10))).isEmpty();
+    assertThat(userService.getArchivedTodoItemsForUser(4L, PageRequest.of(0, 10)))
+        .extracting(TodoItemDto::getTodo)
+        .containsExactly("Call parents", "Clean the house");
+    assertThat(userService.getUserSummaries(List.of(4L)))
+        .containsExactly(new UserSummary(4L, "anna_b", 0, 2));
+  }
+}
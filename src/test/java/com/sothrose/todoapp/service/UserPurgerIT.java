@@ -0,0 +1,70 @@
+package com.sothrose.todoapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers
+class UserPurgerIT {
+
+  @Container
+  static PostgreSQLContainer<?> postgresContainer =
+      new PostgreSQLContainer<>("postgres:15.3")
+          .withDatabaseName("testdb")
+          .withUsername("testuser")
+          .withPassword("testpass")
+          .withInitScript("schema.sql");
+
+  @DynamicPropertySource
+  static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+    registry.add("spring.datasource.username", postgresContainer::getUsername);
+    registry.add("spring.datasource.password", postgresContainer::getPassword);
+    registry.add("spring.flyway.baselineOnMigrate", () -> "true");
+    registry.add("todoapp.purge.batch-size", () -> "1");
+    registry.add("todoapp.purge.batch-delay", () -> "0ms");
+  }
+
+  @Autowired private UserPurger userPurger;
+
+  @Autowired private UserService userService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Test
+  void shouldHideDeletedUserAndPurgeItsRowsInBatches() {
+    // given
+    userService.deleteUser(2L);
+
+    // when
+    var itemsBeforePurge = countRows("SELECT COUNT(*) FROM todo_item WHERE user_id = 2");
+    userPurger.purgeDeletedUsers();
+
+    // then
+    assertThatThrownBy(() -> userService.getUser(2L)).isInstanceOf(UserNotFoundException.class);
+    assertThat(itemsBeforePurge).isEqualTo(2);
+    assertThat(countRows("SELECT COUNT(*) FROM todo_item WHERE user_id = 2")).isZero();
+    assertThat(countRows("SELECT COUNT(*) FROM todo_user WHERE id = 2")).isZero();
+    assertThat(meterRegistry.counter("todoapp.purge.todo-items").count()).isEqualTo(2);
+    assertThat(meterRegistry.counter("todoapp.purge.users").count()).isEqualTo(1);
+    assertThat(meterRegistry.get("todoapp.purge.pending-users").gauge().value()).isZero();
+  }
+
+  private int countRows(String sql) {
+    return jdbcTemplate.queryForObject(sql, Integer.class);
+  }
+}
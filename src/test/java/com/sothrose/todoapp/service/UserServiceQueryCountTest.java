@@ -0,0 +1,254 @@
+package com.sothrose.todoapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sothrose.todoapp.exception.UserNotFoundException;
+import com.sothrose.todoapp.model.TodoItem;
+import com.sothrose.todoapp.model.TodoItemDto;
+import com.sothrose.todoapp.model.User;
+import com.sothrose.todoapp.model.UserDto;
+import com.sothrose.todoapp.model.UserSummary;
+import com.sothrose.todoapp.repository.TodoItemRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+
+@DataJpaTest(
+    properties = "spring.jpa.properties.hibernate.generate_statistics=true",
+    includeFilters = @Filter(Repository.class))
+@Import({
+  UserService.class,
+  NoOpUserCache.class,
+  TodoItemChangePublisher.class,
+  TodoItemChangeNotifier.class
+})
+class UserServiceQueryCountTest {
+  private static final int ITEMS_PER_USER = 3;
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Autowired private UserService userService;
+
+  @Autowired private TodoItemRepository todoItemRepository;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  public void shouldFetchUserPageInConstantNumberOfQueries() {
+    // given
+    persistUsers(10);
+    var queriesForTenUsers = countStatements(() -> userService.getUsers(0L, 100));
+    persistUsers(40);
+
+    // when
+    var queriesForFiftyUsers = countStatements(() -> userService.getUsers(0L, 100));
+
+    // then
+    assertThat(queriesForTenUsers).isEqualTo(2);
+    assertThat(queriesForFiftyUsers).isEqualTo(queriesForTenUsers);
+  }
+
+  @Test
+  public void shouldStreamUsersInConstantNumberOfQueries() {
+    // given
+    persistUsers(10);
+    var queriesForTenUsers = countStatements(() -> userService.streamAllUsers(user -> {}));
+    persistUsers(40);
+
+    // when
+    var queriesForFiftyUsers = countStatements(() -> userService.streamAllUsers(user -> {}));
+
+    // then
+    assertThat(queriesForTenUsers).isEqualTo(2);
+    assertThat(queriesForFiftyUsers).isEqualTo(queriesForTenUsers);
+  }
+
+  @Test
+  public void shouldStreamUsersInKeysetChunks() {
+    // given
+    persistUsers(150);
+    var streamed = new ArrayList<UserDto>();
+
+    // when
+    var queries = countStatements(() -> userService.streamAllUsers(streamed::add));
+
+    // then
+    assertThat(queries).isEqualTo(4);
+    assertThat(streamed).hasSize(150);
+    assertThat(streamed).extracting(UserDto::getUsername).doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void shouldFetchSingleUserWithItemsInOneQuery() {
+    // given
+    var userId = persistUsers(1);
+
+    // when
+    var queries = countStatements(() -> userService.getUser(userId));
+
+    // then
+    assertThat(queries).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldFetchUserBatchInTwoQueriesAndReportMissingIds() {
+    // given
+    var lastId = persistUsers(20);
+    var missingId = lastId + 1_000;
+
+    // when
+    statistics.clear();
+    var batch = userService.getUsersByIds(List.of(lastId, lastId - 1, missingId));
+
+    // then
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    assertThat(batch.users()).containsOnlyKeys(lastId, lastId - 1);
+    assertThat(batch.users().get(lastId).getTodoItems()).hasSize(ITEMS_PER_USER);
+    assertThat(batch.missingIds()).containsExactly(missingId);
+  }
+
+  @Test
+  public void shouldUpdateStatusOfManyItemsInConstantNumberOfQueries() {
+    // given
+    var lastId = persistUsers(3);
+    userService.setTodoItemsDone(lastId - 2, notDoneItemIds(lastId - 2).subList(0, 1), true);
+    var oneItem = notDoneItemIds(lastId - 1).subList(0, 1);
+    var allItems = notDoneItemIds(lastId);
+
+    // when
+    var queriesForOneItem =
+        countStatements(() -> userService.setTodoItemsDone(lastId - 1, oneItem, true));
+    var queriesForAllItems =
+        countStatements(() -> userService.setTodoItemsDone(lastId, allItems, true));
+
+    // then
+    assertThat(queriesForAllItems).isEqualTo(queriesForOneItem);
+    assertThat(notDoneItemIds(lastId)).isEmpty();
+    assertThat(userService.setTodoItemsDone(lastId, allItems, true)).isZero();
+  }
+
+  @Test
+  public void shouldFetchSummariesOfManyUsersInOneQuery() {
+    // given
+    var lastId = persistUsers(20);
+
+    // when
+    statistics.clear();
+    var summaries = userService.getUserSummaries(List.of(lastId, lastId - 1, lastId + 1_000));
+
+    // then
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(summaries).extracting(UserSummary::id).containsExactly(lastId - 1, lastId);
+  }
+
+  @Test
+  public void shouldKeepTodoItemCountsInStepWithItemWrites() {
+    // given
+    var user = new User("counted", "first", "last", "counted@do.pl", LocalDate.of(1985, 4, 12));
+    entityManager.persistAndFlush(user);
+    var userId = user.getId();
+    var due = LocalDateTime.of(2030, 1, 1, 12, 0);
+    userService.addTodoItemToUser(new TodoItemDto(userId, "first", "info", due, false));
+    userService.addTodoItemToUser(new TodoItemDto(userId, "second", "info", due, false));
+    userService.addTodoItemToUser(new TodoItemDto(userId, "third", "info", due, true));
+    var openIds = notDoneItemIds(userId);
+
+    // when
+    userService.setTodoItemsDone(userId, openIds.subList(0, 1), true);
+    userService.deleteTodoItemFromUser(userId, openIds.get(1));
+
+    // then
+    assertThat(userService.getUserSummaries(List.of(userId)))
+        .containsExactly(new UserSummary(userId, "counted", 0, 2));
+  }
+
+  @Test
+  public void shouldHideDeletedUserWithoutDeletingItsTodoItemsInline() {
+    // given
+    var userId = persistUsers(2);
+
+    // when
+    statistics.clear();
+    userService.deleteUser(userId);
+    entityManager.flush();
+    entityManager.clear();
+
+    // then
+    assertThat(statistics.getEntityDeleteCount()).isZero();
+    assertThat(todoItemRepository.findDtosByUserIdIn(List.of(userId))).hasSize(ITEMS_PER_USER);
+    assertThatThrownBy(() -> userService.getUser(userId)).isInstanceOf(UserNotFoundException.class);
+    assertThat(userService.getUsers(0L, 100).items()).hasSize(1);
+    assertThat(userService.getUserSummaries(List.of(userId))).isEmpty();
+  }
+
+  @Test
+  public void shouldReadUsersWithoutLoadingEntities() {
+    // given
+    var userId = persistUsers(10);
+
+    // when
+    statistics.clear();
+    var user = userService.getUser(userId);
+    var users = userService.getUsers(0L, 100);
+
+    // then
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    assertThat(user.getTodoItems()).hasSize(ITEMS_PER_USER);
+    assertThat(user.getTodoItems()).extracting(TodoItemDto::getId).doesNotContainNull();
+    assertThat(users.items()).hasSize(10);
+    assertThat(users.items()).allSatisfy(u -> assertThat(u.getTodoItems()).hasSize(ITEMS_PER_USER));
+  }
+
+  private Long persistUsers(int count) {
+    Long lastId = null;
+    for (int i = 0; i < count; i++) {
+      var user =
+          new User("user" + i, "first", "last", "user" + i + "@do.pl", LocalDate.of(1985, 4, 12));
+      entityManager.persist(user);
+      for (int j = 0; j < ITEMS_PER_USER; j++) {
+        entityManager.persist(
+            new TodoItem(
+                user.getId(), "todo" + j, "info", LocalDateTime.of(2030, 1, 1, 12, 0), false));
+      }
+      lastId = user.getId();
+    }
+    entityManager.flush();
+    entityManager.clear();
+    return lastId;
+  }
+
+  private List<Long> notDoneItemIds(Long userId) {
+    return todoItemRepository.findByUserIdAndDone(userId, false, PageRequest.of(0, 100)).stream()
+        .map(TodoItemDto::getId)
+        .toList();
+  }
+
+  private long countStatements(Runnable action) {
+    statistics.clear();
+    action.run();
+    var count = statistics.getPrepareStatementCount();
+    entityManager.clear();
+    return count;
+  }
+}